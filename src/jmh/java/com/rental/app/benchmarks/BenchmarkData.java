@@ -0,0 +1,73 @@
+package com.rental.app.benchmarks;
+
+import com.rental.app.dtos.CreateRentalDto;
+import com.rental.app.entities.Rental;
+import com.rental.app.entities.User;
+
+import java.math.BigDecimal;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic fixtures shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+        // Private constructor to prevent instantiation
+    }
+
+    static User user() {
+        User user = new User("Benchmark User", "bench@example.com", "password");
+        user.setId(1L);
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        user.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return user;
+    }
+
+    static Rental rental(long id, User owner) {
+        Rental rental = new Rental(
+                "Sea view studio " + id,
+                BigDecimal.valueOf(20 + id % 180),
+                new BigDecimal(String.format("%d.%02d", 300 + id % 4000, id % 100)),
+                "http://localhost:3001/api/rentals/image/" + id + ".jpg",
+                "Bright studio close to the beach, fully furnished, listing number " + id);
+        rental.setId(id);
+        rental.setOwner(owner);
+        rental.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(id));
+        rental.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 12, 0).plusMinutes(id));
+        return rental;
+    }
+
+    static List<Rental> rentals(int count) {
+        User owner = user();
+        List<Rental> rentals = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            rentals.add(rental(id, owner));
+        }
+        return rentals;
+    }
+
+    static CreateRentalDto createRentalDto() {
+        CreateRentalDto dto = new CreateRentalDto();
+        dto.setName("Sea view studio");
+        dto.setSurface("42.5");
+        dto.setPrice("1250.00");
+        dto.setDescription("Bright studio close to the beach");
+        return dto;
+    }
+
+    static KeyPair rsaKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.rental.app.benchmarks;
+
+import com.rental.app.services.FileStorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link FileStorageService#storeFile} for typical picture sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FileStorageBenchmark {
+
+    @Param({"65536", "1048576", "10485760"})
+    private int fileSize;
+
+    private FileStorageService fileStorageService;
+    private MockMultipartFile picture;
+    private Path uploadDir;
+
+    @Setup
+    public void setUp() throws IOException {
+        uploadDir = Files.createTempDirectory("storefile-bench");
+        fileStorageService = new FileStorageService(new MockServletContext(), new MockEnvironment(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+
+        byte[] content = new byte[fileSize];
+        ThreadLocalRandom.current().nextBytes(content);
+        picture = new MockMultipartFile("picture", "photo.jpg", "image/jpeg", content);
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanUpIteration() throws IOException {
+        FileSystemUtils.deleteRecursively(uploadDir);
+        Files.createDirectories(uploadDir);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(uploadDir);
+    }
+
+    @Benchmark
+    public String storeFile() {
+        return fileStorageService.storeFile(picture);
+    }
+}
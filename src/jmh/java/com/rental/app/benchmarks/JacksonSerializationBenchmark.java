@@ -0,0 +1,49 @@
+package com.rental.app.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rental.app.dtos.RentalsRecord;
+import com.rental.app.entities.Rental;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of the rental payloads returned by the API.
+ * The ObjectMapper is configured like the one Spring Boot auto-configures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JacksonSerializationBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private RentalsRecord rentalsRecord;
+    private Rental rental;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        rentalsRecord = new RentalsRecord(BenchmarkData.rentals(size));
+        rental = rentalsRecord.rentals().get(0);
+    }
+
+    @Benchmark
+    public byte[] serializeRentalsRecord() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(rentalsRecord);
+    }
+
+    @Benchmark
+    public byte[] serializeRental() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(rental);
+    }
+}
@@ -0,0 +1,58 @@
+package com.rental.app.benchmarks;
+
+import com.rental.app.config.JwtConfig;
+import com.rental.app.services.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and validation using the encoder and decoder built by {@link JwtConfig}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private JwtDecoder jwtDecoder;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        KeyPair keyPair = BenchmarkData.rsaKeyPair();
+        JwtConfig config = new JwtConfig();
+        ReflectionTestUtils.setField(config, "key", keyPair.getPublic());
+        ReflectionTestUtils.setField(config, "priv", keyPair.getPrivate());
+        JwtEncoder jwtEncoder = ReflectionTestUtils.invokeMethod(config, "jwtEncoder");
+        jwtDecoder = ReflectionTestUtils.invokeMethod(config, "jwtDecoder");
+
+        jwtService = new JwtService(jwtEncoder, null);
+        ReflectionTestUtils.setField(jwtService, "jwtIssuer", "benchmark");
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationHours", 24L);
+
+        authentication = UsernamePasswordAuthenticationToken.authenticated("bench@example.com", null, List.of());
+        token = jwtService.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String encode() {
+        return jwtService.generateToken(authentication);
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return jwtDecoder.decode(token);
+    }
+}
@@ -0,0 +1,31 @@
+package com.rental.app.benchmarks;
+
+import com.rental.app.dtos.CreateRentalDto;
+import com.rental.app.entities.Rental;
+import com.rental.app.utils.Mapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping a create request to a Rental entity, dominated by BigDecimal parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapperBenchmark {
+
+    private CreateRentalDto createRentalDto;
+
+    @Setup
+    public void setUp() {
+        createRentalDto = BenchmarkData.createRentalDto();
+    }
+
+    @Benchmark
+    public Rental mapRentalDtoToRental() {
+        return Mapper.mapRentalDtoToRental(createRentalDto, "http://localhost:3001/api/rentals/image/1.jpg");
+    }
+}
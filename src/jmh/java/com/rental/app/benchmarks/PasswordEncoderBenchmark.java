@@ -0,0 +1,39 @@
+package com.rental.app.benchmarks;
+
+import com.rental.app.config.SecurityBeansConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt hashing and verification with the encoder configured in {@link SecurityBeansConfig}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new SecurityBeansConfig().passwordEncoder();
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+}
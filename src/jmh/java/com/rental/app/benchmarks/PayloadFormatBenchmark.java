@@ -0,0 +1,93 @@
+package com.rental.app.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.rental.app.dtos.RentalsRecord;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization cost and payload size of {@code GET /api/rentals} in each negotiated format.
+ * The encoded and gzipped sizes are appended to {@code target/payload-sizes.csv}, one line per format and size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PayloadFormatBenchmark {
+
+    private static final Path SIZES_FILE = Path.of("target", "payload-sizes.csv");
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private RentalsRecord rentalsRecord;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        rentalsRecord = new RentalsRecord(BenchmarkData.rentals(size));
+        recordSizes();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(rentalsRecord);
+    }
+
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(rentalsRecord));
+    }
+
+    private void recordSizes() throws IOException {
+        byte[] encoded = objectMapper.writeValueAsBytes(rentalsRecord);
+        String key = format + "," + size + ",";
+        try {
+            Files.createDirectories(SIZES_FILE.getParent());
+            if (Files.notExists(SIZES_FILE)) {
+                Files.writeString(SIZES_FILE, "format,rentals,bytes,gzip_bytes" + System.lineSeparator(), StandardCharsets.UTF_8);
+            } else if (Files.readAllLines(SIZES_FILE).stream().anyMatch(line -> line.startsWith(key))) {
+                return;
+            }
+            String line = key + encoded.length + "," + gzip(encoded).length + System.lineSeparator();
+            Files.writeString(SIZES_FILE, line, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record payload sizes", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
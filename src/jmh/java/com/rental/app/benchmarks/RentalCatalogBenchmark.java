@@ -0,0 +1,39 @@
+package com.rental.app.benchmarks;
+
+import com.rental.app.catalog.RentalCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Range filtering and top-K sorting over the in-memory rental catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RentalCatalogBenchmark {
+
+    @Param({"100000", "500000"})
+    private int size;
+
+    private RentalCatalog catalog;
+
+    @Setup
+    public void setUp() {
+        catalog = new RentalCatalog(new SimpleMeterRegistry());
+        catalog.upsert(BenchmarkData.rentals(size));
+    }
+
+    @Benchmark
+    public RentalCatalog.Result filterByPriceAndSurface() {
+        return catalog.filter(100_000L, 200_000L, 50, 120, RentalCatalog.Sort.PRICE_ASC, 50);
+    }
+
+    @Benchmark
+    public RentalCatalog.Result newestUnfiltered() {
+        return catalog.filter(null, null, null, null, RentalCatalog.Sort.NEWEST, 50);
+    }
+}
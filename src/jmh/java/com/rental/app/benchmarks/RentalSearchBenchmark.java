@@ -0,0 +1,50 @@
+package com.rental.app.benchmarks;
+
+import com.rental.app.catalog.RentalSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-text search over the in-memory rental index, and the cost of building it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RentalSearchBenchmark {
+
+    @Param({"10000", "100000"})
+    private int size;
+
+    private RentalSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new RentalSearchIndex(new SimpleMeterRegistry());
+        index.upsert(BenchmarkData.rentals(size));
+    }
+
+    @Benchmark
+    public RentalSearchIndex.Result selectiveQuery() {
+        return index.search("listing 4242", 0, 20);
+    }
+
+    @Benchmark
+    public RentalSearchIndex.Result prefixQuery() {
+        return index.search("studio be", 0, 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public RentalSearchIndex rebuild() {
+        RentalSearchIndex rebuilt = new RentalSearchIndex(new SimpleMeterRegistry());
+        rebuilt.upsert(BenchmarkData.rentals(size));
+        return rebuilt;
+    }
+}
@@ -0,0 +1,46 @@
+package com.rental.app.benchmarks;
+
+import com.rental.app.catalog.RentalStatistics;
+import com.rental.app.dtos.RentalStatsRecord;
+import com.rental.app.entities.Rental;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and updating the incrementally maintained price statistics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RentalStatisticsBenchmark {
+
+    @Param({"10000", "500000"})
+    private int size;
+
+    private RentalStatistics statistics;
+    private Rental updated;
+
+    @Setup
+    public void setUp() {
+        statistics = new RentalStatistics(new double[]{250, 500, 750, 1000, 1500, 2000, 3000, 5000, 10000},
+                new double[]{5, 10, 15, 20, 25, 30, 40, 50, 75, 100});
+        statistics.upsert(BenchmarkData.rentals(size));
+        updated = BenchmarkData.rental(size / 2, BenchmarkData.user());
+    }
+
+    @Benchmark
+    public RentalStatsRecord snapshot() {
+        return statistics.snapshot();
+    }
+
+    @Benchmark
+    public void update() {
+        updated.setUpdatedAt(LocalDateTime.now());
+        statistics.upsert(List.of(updated));
+    }
+}
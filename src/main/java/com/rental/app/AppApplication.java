@@ -3,7 +3,8 @@ package com.rental.app;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+// R2DBC is only on the classpath in the reactive build (com.rental.app.reactive); this application stays on JPA.
+@SpringBootApplication(excludeName = "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
 public class AppApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,15 @@
+package com.rental.app.archive;
+
+/**
+ * Location of a compressed block of archived messages of one rental, as recorded in the archive index.
+ *
+ * @param segment The number of the segment file holding the block.
+ * @param offset The position of the block in the segment file.
+ * @param length The compressed length of the block in bytes.
+ * @param firstId The id of the first message of the block.
+ * @param lastId The id of the last message of the block.
+ * @param count The number of messages in the block.
+ * @param crc The CRC-32 of the compressed bytes.
+ */
+record ArchivedBlock(int segment, long offset, int length, long firstId, long lastId, int count, int crc) {
+}
@@ -0,0 +1,479 @@
+package com.rental.app.archive;
+
+import com.rental.app.dtos.StoredMessageRecord;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Cold storage for old messages, kept in compressed append-only segment files instead of the database.
+ * Messages are archived in id order by the {@link MessageArchiver}, so every message up to the {@link #watermark()}
+ * is in the archive and every later one is still in the database. Each archived batch is written as one
+ * deflate-compressed block per rental, appended to the current segment file, and recorded in an index file by an
+ * entry per block followed by a commit entry carrying the new watermark. Entries after the last commit are from
+ * a write that did not finish and are ignored. A rental deleted after its messages were archived gets a deletion
+ * entry, and its blocks are then dropped from the index; their bytes stay in the segments.
+ * The index is kept in memory by rental, and the segments are memory-mapped when read, so paging through the
+ * archived messages of a rental only inflates the few blocks it needs. The index is re-read periodically, and
+ * whenever the watermark is read after it grew, so instances sharing the archive directory see what another
+ * instance archived before they could miss the messages it deleted.
+ */
+@Component
+public class MessageArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageArchive.class);
+    private static final String INDEX_FILE = "messages.idx";
+    private static final byte BLOCK_ENTRY = 'B';
+    private static final byte COMMIT_ENTRY = 'C';
+    private static final byte DELETED_ENTRY = 'D';
+    private static final int BLOCK_ENTRY_SIZE = 1 + Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES
+            + Long.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int COMMIT_ENTRY_SIZE = 1 + Long.BYTES;
+    private static final int DELETED_ENTRY_SIZE = 1 + Long.BYTES;
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final Map<Long, List<ArchivedBlock>> blocks = new ConcurrentHashMap<>();
+    private final Map<Integer, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    private volatile long watermark;
+    private volatile long archivedMessages;
+    private volatile long archivedBytes;
+    private long indexPosition;
+    private volatile long indexLength;
+    private int lastSegment;
+
+    public MessageArchive(@Value("${app.messages.archive.dir:archive/messages}") String directory,
+                          @Value("${app.messages.archive.max-segment-size:64MB}") DataSize maxSegmentSize,
+                          MeterRegistry meterRegistry) {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        // Segments are mapped whole, and a mapping cannot exceed 2 GB.
+        this.maxSegmentBytes = Math.min(maxSegmentSize.toBytes(), DataSize.ofMegabytes(1024).toBytes());
+        Gauge.builder("app.messages.archive.messages", this, archive -> archive.archivedMessages)
+                .description("Messages moved from the database to the archive")
+                .register(meterRegistry);
+        Gauge.builder("app.messages.archive.size", this, archive -> archive.archivedBytes)
+                .description("Compressed size of the archived messages")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        try {
+            refresh();
+        } catch (UncheckedIOException e) {
+            // Serving messages without the archive would silently hide the archived ones.
+            throw new IllegalStateException("Could not read the message archive in " + this.directory, e);
+        }
+    }
+
+    /**
+     * Returns the id of the last archived message: every message up to it is in the archive, and none after it.
+     * The index is read again first if it grew, so a message deleted from the database by the archiver of another
+     * instance is never missing from both the database and the archive as seen from here.
+     *
+     * @return The watermark, or 0 if nothing was archived.
+     */
+    public long watermark() {
+        if (directory.resolve(INDEX_FILE).toFile().length() != indexLength) {
+            refresh();
+        }
+        return watermark;
+    }
+
+    /**
+     * Returns archived messages of a rental in ascending id order.
+     *
+     * @param rentalId The ID of the rental.
+     * @param afterId Only messages with a greater id are returned.
+     * @param limit The maximum number of messages to return.
+     */
+    public List<StoredMessageRecord> findByRentalAfter(long rentalId, long afterId, int limit) {
+        List<StoredMessageRecord> messages = new ArrayList<>();
+        for (ArchivedBlock block : blocks.getOrDefault(rentalId, List.of())) {
+            if (messages.size() >= limit) {
+                break;
+            }
+            if (block.lastId() <= afterId) {
+                continue;
+            }
+            for (StoredMessageRecord message : read(rentalId, block)) {
+                if (message.id() > afterId && messages.size() < limit) {
+                    messages.add(message);
+                }
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Returns archived messages of a rental in descending id order.
+     *
+     * @param rentalId The ID of the rental.
+     * @param beforeId Only messages with a smaller id are returned.
+     * @param limit The maximum number of messages to return.
+     */
+    public List<StoredMessageRecord> findByRentalBefore(long rentalId, long beforeId, int limit) {
+        List<StoredMessageRecord> messages = new ArrayList<>();
+        List<ArchivedBlock> rentalBlocks = blocks.getOrDefault(rentalId, List.of());
+        for (int i = rentalBlocks.size() - 1; i >= 0 && messages.size() < limit; i--) {
+            ArchivedBlock block = rentalBlocks.get(i);
+            if (block.firstId() >= beforeId) {
+                continue;
+            }
+            List<StoredMessageRecord> blockMessages = read(rentalId, block);
+            for (int j = blockMessages.size() - 1; j >= 0 && messages.size() < limit; j--) {
+                if (blockMessages.get(j).id() < beforeId) {
+                    messages.add(blockMessages.get(j));
+                }
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Appends messages to the archive and moves the watermark to the last of them.
+     * The messages must be every message after the current watermark up to the last one, in id order. They are on
+     * disk when this method returns, and visible to the readers of this instance; they can then be deleted from the
+     * database. Only one instance may append to an archive directory.
+     *
+     * @param messages The messages to archive.
+     * @throws UncheckedIOException if the archive could not be written; the watermark is then unchanged.
+     */
+    public synchronized void append(List<StoredMessageRecord> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        Map<Long, List<StoredMessageRecord>> byRental = new TreeMap<>();
+        for (StoredMessageRecord message : messages) {
+            byRental.computeIfAbsent(message.rentalId() != null ? message.rentalId() : 0L, id -> new ArrayList<>())
+                    .add(message);
+        }
+        try {
+            Files.createDirectories(directory);
+            ByteArrayOutputStream index = new ByteArrayOutputStream();
+            DataOutputStream indexOutput = new DataOutputStream(index);
+            int segment = lastSegment;
+            FileChannel channel = openSegment(segment);
+            try {
+                for (Map.Entry<Long, List<StoredMessageRecord>> rental : byRental.entrySet()) {
+                    byte[] block = encode(rental.getValue());
+                    if (channel.size() > 0 && channel.size() + block.length > maxSegmentBytes) {
+                        channel.force(false);
+                        channel.close();
+                        channel = openSegment(++segment);
+                    }
+                    long offset = channel.size();
+                    writeFully(channel, ByteBuffer.wrap(block), offset);
+                    CRC32 crc = new CRC32();
+                    crc.update(block);
+                    List<StoredMessageRecord> rentalMessages = rental.getValue();
+                    indexOutput.writeByte(BLOCK_ENTRY);
+                    indexOutput.writeLong(rental.getKey());
+                    indexOutput.writeInt(segment);
+                    indexOutput.writeLong(offset);
+                    indexOutput.writeInt(block.length);
+                    indexOutput.writeLong(rentalMessages.get(0).id());
+                    indexOutput.writeLong(rentalMessages.get(rentalMessages.size() - 1).id());
+                    indexOutput.writeInt(rentalMessages.size());
+                    indexOutput.writeInt((int) crc.getValue());
+                }
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+            indexOutput.writeByte(COMMIT_ENTRY);
+            indexOutput.writeLong(messages.get(messages.size() - 1).id());
+            writeIndex(ByteBuffer.wrap(index.toByteArray()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        refresh();
+    }
+
+    /**
+     * Returns the ids of the rentals with archived messages, 0 standing for messages without a rental.
+     */
+    public Set<Long> archivedRentalIds() {
+        return Set.copyOf(blocks.keySet());
+    }
+
+    /**
+     * Records that rentals were deleted, so that every instance drops their archived messages from its index.
+     * The compressed messages stay in the segment files. Only the instance that appends may call this.
+     *
+     * @param rentalIds The IDs of the deleted rentals.
+     * @throws UncheckedIOException if the index could not be written; the rentals are then still indexed.
+     */
+    public synchronized void forget(Collection<Long> rentalIds) {
+        if (rentalIds.isEmpty()) {
+            return;
+        }
+        ByteBuffer entries = ByteBuffer.allocate(rentalIds.size() * DELETED_ENTRY_SIZE + COMMIT_ENTRY_SIZE);
+        for (long rentalId : rentalIds) {
+            entries.put(DELETED_ENTRY).putLong(rentalId);
+        }
+        entries.put(COMMIT_ENTRY).putLong(watermark).flip();
+        try {
+            writeIndex(entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        refresh();
+    }
+
+    private void writeIndex(ByteBuffer entries) throws IOException {
+        try (FileChannel indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Drop what is left of a write that did not finish, so the new entries follow the last commit.
+            indexChannel.truncate(indexPosition);
+            writeFully(indexChannel, entries, indexPosition);
+            indexChannel.force(false);
+        }
+    }
+
+    /**
+     * Reads the index entries committed since the last refresh, including those written by another instance.
+     * Reads also refresh the index when it grew, so this only keeps the in-memory index close to the file between them.
+     */
+    @Scheduled(fixedDelayString = "${app.messages.archive.refresh-interval:PT1M}")
+    public synchronized void refresh() {
+        Path indexFile = directory.resolve(INDEX_FILE);
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            indexLength = size;
+            if (size <= indexPosition) {
+                return;
+            }
+            ByteBuffer entries = ByteBuffer.allocate(Math.toIntExact(size - indexPosition));
+            while (entries.hasRemaining()) {
+                if (channel.read(entries, indexPosition + entries.position()) < 0) {
+                    break;
+                }
+            }
+            entries.flip();
+            Map<Long, List<ArchivedBlock>> pending = new TreeMap<>();
+            List<Long> deleted = new ArrayList<>();
+            int committed = 0;
+            while (entries.hasRemaining()) {
+                byte type = entries.get(entries.position());
+                if (type == BLOCK_ENTRY && entries.remaining() >= BLOCK_ENTRY_SIZE) {
+                    entries.get();
+                    long rentalId = entries.getLong();
+                    ArchivedBlock block = new ArchivedBlock(entries.getInt(), entries.getLong(), entries.getInt(),
+                            entries.getLong(), entries.getLong(), entries.getInt(), entries.getInt());
+                    pending.computeIfAbsent(rentalId, id -> new ArrayList<>()).add(block);
+                } else if (type == DELETED_ENTRY && entries.remaining() >= DELETED_ENTRY_SIZE) {
+                    entries.get();
+                    deleted.add(entries.getLong());
+                } else if (type == COMMIT_ENTRY && entries.remaining() >= COMMIT_ENTRY_SIZE) {
+                    entries.get();
+                    publish(pending, deleted);
+                    pending.clear();
+                    deleted.clear();
+                    watermark = entries.getLong();
+                    indexPosition += entries.position() - committed;
+                    committed = entries.position();
+                } else if (type == BLOCK_ENTRY || type == DELETED_ENTRY || type == COMMIT_ENTRY) {
+                    break;
+                } else {
+                    throw new IllegalStateException("Corrupt message archive index at position " + (indexPosition + entries.position()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void publish(Map<Long, List<ArchivedBlock>> committed, List<Long> deleted) {
+        committed.forEach((rentalId, added) -> {
+            blocks.merge(rentalId, List.copyOf(added), (existing, more) -> {
+                List<ArchivedBlock> merged = new ArrayList<>(existing.size() + more.size());
+                merged.addAll(existing);
+                merged.addAll(more);
+                return List.copyOf(merged);
+            });
+            for (ArchivedBlock block : added) {
+                archivedMessages += block.count();
+                archivedBytes += block.length();
+                lastSegment = Math.max(lastSegment, block.segment());
+            }
+        });
+        for (Long rentalId : deleted) {
+            List<ArchivedBlock> removed = blocks.remove(rentalId);
+            for (ArchivedBlock block : removed != null ? removed : List.<ArchivedBlock>of()) {
+                archivedMessages -= block.count();
+                archivedBytes -= block.length();
+            }
+        }
+        if (!committed.isEmpty()) {
+            logger.debug("Loaded archived messages of {} rentals, watermark is now {}", committed.size(), watermark);
+        }
+        if (!deleted.isEmpty()) {
+            logger.debug("Dropped archived messages of {} deleted rentals", deleted.size());
+        }
+    }
+
+    private List<StoredMessageRecord> read(long rentalId, ArchivedBlock block) {
+        ByteBuffer compressed = segment(block).duplicate()
+                .position(Math.toIntExact(block.offset()))
+                .limit(Math.toIntExact(block.offset() + block.length()));
+        CRC32 crc = new CRC32();
+        crc.update(compressed.duplicate());
+        if ((int) crc.getValue() != block.crc()) {
+            throw new IllegalStateException("Corrupt archived block of rental " + rentalId + " in segment " + block.segment());
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(block.length() * 4);
+            byte[] chunk = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(chunk);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated archived block of rental " + rentalId);
+                }
+                bytes.write(chunk, 0, inflated);
+            }
+            return decode(rentalId, block.count(), new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        } catch (DataFormatException | IOException e) {
+            throw new IllegalStateException("Unreadable archived block of rental " + rentalId, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Returns the mapping of the segment holding a block, mapping it again if the segment grew past it.
+     */
+    private MappedByteBuffer segment(ArchivedBlock block) {
+        long end = block.offset() + block.length();
+        MappedByteBuffer mapped = segments.get(block.segment());
+        if (mapped != null && mapped.capacity() >= end) {
+            return mapped;
+        }
+        return segments.compute(block.segment(), (segment, current) -> {
+            if (current != null && current.capacity() >= end) {
+                return current;
+            }
+            try (FileChannel channel = FileChannel.open(segmentFile(segment), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private FileChannel openSegment(int segment) throws IOException {
+        return FileChannel.open(segmentFile(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentFile(int segment) {
+        return directory.resolve(String.format("messages-%06d.seg", segment));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static byte[] encode(List<StoredMessageRecord> messages) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        for (StoredMessageRecord message : messages) {
+            output.writeLong(message.id());
+            output.writeLong(message.userId() != null ? message.userId() : 0);
+            writeTimestamp(output, message.createdAt());
+            writeTimestamp(output, message.updatedAt());
+            if (message.message() != null) {
+                byte[] text = message.message().getBytes(StandardCharsets.UTF_8);
+                output.writeInt(text.length);
+                output.write(text);
+            } else {
+                output.writeInt(-1);
+            }
+        }
+        output.flush();
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(bytes.toByteArray());
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.size() / 2 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static List<StoredMessageRecord> decode(long rentalId, int count, DataInputStream input) throws IOException {
+        List<StoredMessageRecord> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = input.readLong();
+            long userId = input.readLong();
+            LocalDateTime createdAt = readTimestamp(input);
+            LocalDateTime updatedAt = readTimestamp(input);
+            int length = input.readInt();
+            String text = null;
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                input.readFully(bytes);
+                text = new String(bytes, StandardCharsets.UTF_8);
+            }
+            messages.add(new StoredMessageRecord(id, rentalId != 0 ? rentalId : null, userId != 0 ? userId : null,
+                    text, createdAt, updatedAt));
+        }
+        return messages;
+    }
+
+    private static void writeTimestamp(DataOutputStream output, LocalDateTime timestamp) throws IOException {
+        output.writeBoolean(timestamp != null);
+        if (timestamp != null) {
+            output.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+            output.writeInt(timestamp.getNano());
+        }
+    }
+
+    private static LocalDateTime readTimestamp(DataInputStream input) throws IOException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(input.readLong(), input.readInt(), ZoneOffset.UTC);
+    }
+}
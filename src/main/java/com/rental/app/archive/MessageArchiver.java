@@ -0,0 +1,211 @@
+package com.rental.app.archive;
+
+import com.rental.app.dtos.StoredMessageRecord;
+import com.rental.app.repositories.MessageRepository;
+import com.rental.app.repositories.RentalRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves messages older than the configured age from the database to the {@link MessageArchive}.
+ * Messages are taken in id order after the watermark of the archive, and reading stops at the first message that
+ * is not old enough, so the archive always holds every message up to its watermark. Messages are read and then
+ * deleted in batches, each in its own short transaction with a pause after it to leave the database to the
+ * requests, and are only deleted once written to the archive. Readers never see a message twice, as they ignore
+ * database rows up to the watermark; rows left by a run that stopped between the two steps are deleted by the next run.
+ * Each run also records in the archive the rentals deleted since their messages were archived.
+ * It runs on its own thread, so a long run does not delay the other scheduled tasks, and on one instance only.
+ * Whether it runs is checked at startup rather than by a bean condition, which an ahead-of-time build would fix.
+ */
+@Component
+public class MessageArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageArchiver.class);
+
+    private final MessageRepository messageRepository;
+    private final RentalRepository rentalRepository;
+    private final MessageArchive messageArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration maxAge;
+    private final int batchSize;
+    private final int writeSize;
+    private final Duration pause;
+    private final Duration interval;
+    private final boolean enabled;
+    private final Timer writeTimer;
+    private final Counter archivedMessages;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "message-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long deletedUpTo = -1;
+
+    public MessageArchiver(MessageRepository messageRepository, RentalRepository rentalRepository,
+                           MessageArchive messageArchive,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.messages.archive.max-age:P180D}") Duration maxAge,
+                           @Value("${app.messages.archive.batch-size:1000}") int batchSize,
+                           @Value("${app.messages.archive.write-size:20000}") int writeSize,
+                           @Value("${app.messages.archive.pause:PT0.5S}") Duration pause,
+                           @Value("${app.messages.archive.interval:PT1H}") Duration interval,
+                           @Value("${app.messages.archive.enabled:false}") boolean enabled,
+                           MeterRegistry meterRegistry) {
+        this.messageRepository = messageRepository;
+        this.rentalRepository = rentalRepository;
+        this.messageArchive = messageArchive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+        this.writeSize = writeSize;
+        this.pause = pause;
+        this.interval = interval;
+        this.enabled = enabled;
+        this.writeTimer = Timer.builder("app.messages.archive.write")
+                .description("Time spent writing gathered messages to the archive files")
+                .register(meterRegistry);
+        this.archivedMessages = Counter.builder("app.messages.archive.archived")
+                .description("Messages archived by this instance")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        executor.scheduleWithFixedDelay(this::runSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runSafely() {
+        try {
+            archive();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Message archiving failed, retrying in {}", interval, e);
+        }
+    }
+
+    /**
+     * Archives the messages older than the maximum age, batch by batch.
+     *
+     * @return The number of messages archived.
+     * @throws InterruptedException if the thread is interrupted during a pause.
+     */
+    public synchronized long archive() throws InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+        long archived = 0;
+        boolean more = true;
+        if (deletedUpTo < 0) {
+            // Start at the first message left, rather than walking the ids deleted by earlier runs range by range.
+            Long minId = transactionTemplate.execute(status -> messageRepository.findMinId());
+            deletedUpTo = minId == null ? messageArchive.watermark() : Math.min(minId - 1, messageArchive.watermark());
+        }
+        while (more) {
+            if (deletedUpTo < messageArchive.watermark()) {
+                deleteArchived(messageArchive.watermark());
+            }
+            // Messages of a rental written together share a block, so gathering several batches compresses better.
+            List<StoredMessageRecord> messages = new ArrayList<>();
+            long afterId = messageArchive.watermark();
+            while (more && messages.size() < writeSize) {
+                long after = afterId;
+                List<StoredMessageRecord> batch = transactionTemplate.execute(
+                        status -> messageRepository.findAfter(after, Limit.of(batchSize)));
+                int old = 0;
+                while (old < batch.size() && isOld(batch.get(old), cutoff)) {
+                    old++;
+                }
+                messages.addAll(batch.subList(0, old));
+                more = old == batchSize;
+                if (old > 0) {
+                    afterId = batch.get(old - 1).id();
+                }
+                if (more) {
+                    Thread.sleep(pause.toMillis());
+                }
+            }
+            if (messages.isEmpty()) {
+                break;
+            }
+            writeTimer.record(() -> messageArchive.append(messages));
+            deleteArchived(messageArchive.watermark());
+            archived += messages.size();
+            archivedMessages.increment(messages.size());
+        }
+        if (archived > 0) {
+            logger.info("Archived {} messages older than {}, watermark is now {}", archived, cutoff, messageArchive.watermark());
+        }
+        forgetDeletedRentals();
+        return archived;
+    }
+
+    /**
+     * Records the rentals with archived messages that no longer exist, so that no instance serves their messages.
+     * Checked after archiving, as messages read just before their rental was deleted may have been archived since.
+     */
+    private void forgetDeletedRentals() {
+        List<Long> archivedRentalIds = new ArrayList<>(messageArchive.archivedRentalIds());
+        // Messages without a rental are kept under 0.
+        archivedRentalIds.remove(Long.valueOf(0));
+        List<Long> deleted = new ArrayList<>();
+        for (int from = 0; from < archivedRentalIds.size(); from += batchSize) {
+            List<Long> rentalIds = archivedRentalIds.subList(from, Math.min(from + batchSize, archivedRentalIds.size()));
+            Set<Long> existing = new HashSet<>(transactionTemplate.execute(
+                    status -> rentalRepository.findExistingIds(rentalIds)));
+            rentalIds.stream().filter(rentalId -> !existing.contains(rentalId)).forEach(deleted::add);
+        }
+        if (!deleted.isEmpty()) {
+            messageArchive.forget(deleted);
+            logger.info("Dropped archived messages of {} deleted rentals", deleted.size());
+        }
+    }
+
+    /**
+     * Deletes the archived messages from the database, a range of ids per transaction.
+     */
+    private void deleteArchived(long watermark) throws InterruptedException {
+        while (deletedUpTo < watermark) {
+            long from = deletedUpTo;
+            long to = Math.min(from + batchSize, watermark);
+            Integer deleted = transactionTemplate.execute(status -> messageRepository.deleteByIdRange(from, to));
+            deletedUpTo = to;
+            // Ranges left by an earlier run are mostly empty already, and need no pause.
+            if (deleted != null && deleted > 0 && deletedUpTo < watermark) {
+                Thread.sleep(pause.toMillis());
+            }
+        }
+        logger.debug("Deleted archived messages up to ID: {}", watermark);
+    }
+
+    private static boolean isOld(StoredMessageRecord message, LocalDateTime cutoff) {
+        return message.createdAt() == null || message.createdAt().isBefore(cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
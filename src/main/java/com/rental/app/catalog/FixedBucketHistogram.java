@@ -0,0 +1,55 @@
+package com.rental.app.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Histogram over fixed bucket boundaries.
+ * Bucket {@code i} counts the values in {@code [bounds[i - 1], bounds[i])}; the first bucket has no lower bound and
+ * the last one no upper bound. Values can be removed as well as added. Not thread-safe.
+ */
+final class FixedBucketHistogram {
+
+    private final double[] bounds;
+    private final long[] counts;
+
+    FixedBucketHistogram(double[] bounds) {
+        this.bounds = bounds.clone();
+        Arrays.sort(this.bounds);
+        this.counts = new long[this.bounds.length + 1];
+    }
+
+    void add(double value) {
+        counts[bucket(value)]++;
+    }
+
+    void remove(double value) {
+        counts[bucket(value)]--;
+    }
+
+    /**
+     * Returns the lower bound of the given bucket, or null for the first bucket.
+     */
+    Double lowerBound(int bucket) {
+        return bucket == 0 ? null : bounds[bucket - 1];
+    }
+
+    /**
+     * Returns the upper bound of the given bucket, or null for the last bucket.
+     */
+    Double upperBound(int bucket) {
+        return bucket == bounds.length ? null : bounds[bucket];
+    }
+
+    long count(int bucket) {
+        return counts[bucket];
+    }
+
+    int buckets() {
+        return counts.length;
+    }
+
+    private int bucket(double value) {
+        int position = Arrays.binarySearch(bounds, value);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+}
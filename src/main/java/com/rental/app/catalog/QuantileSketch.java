@@ -0,0 +1,101 @@
+package com.rental.app.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Streaming quantile sketch with logarithmic buckets, in the style of DDSketch.
+ * A positive value {@code v} is counted in bucket {@code ceil(log(v) / log(gamma))}, so every quantile is returned
+ * with a relative error of at most the configured accuracy, and memory grows with the logarithm of the value range
+ * rather than with the number of values. Bucket counts can be decremented, so values can also be removed.
+ * Not thread-safe.
+ */
+final class QuantileSketch {
+
+    private static final double MIN_INDEXABLE_VALUE = 1e-9;
+    private static final int INITIAL_BUCKETS = 128;
+
+    private final double gamma;
+    private final double logGamma;
+    private long[] counts = new long[0];
+    private int offset;
+    private long zeroCount;
+    private long count;
+
+    QuantileSketch(double relativeAccuracy) {
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    void add(double value) {
+        update(value, 1);
+    }
+
+    void remove(double value) {
+        update(value, -1);
+    }
+
+    long count() {
+        return count;
+    }
+
+    /**
+     * Returns the value at the given quantile, or NaN if the sketch is empty.
+     *
+     * @param quantile The quantile, between 0 and 1.
+     */
+    double quantile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(quantile * (count - 1));
+        long seen = zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return value(i + offset);
+            }
+        }
+        return value(counts.length - 1 + offset);
+    }
+
+    double min() {
+        return quantile(0);
+    }
+
+    double max() {
+        return quantile(1);
+    }
+
+    private void update(double value, long delta) {
+        count += delta;
+        if (value < MIN_INDEXABLE_VALUE) {
+            zeroCount += delta;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(value) / logGamma);
+        ensureIndex(index);
+        counts[index - offset] += delta;
+    }
+
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    private void ensureIndex(int index) {
+        if (counts.length == 0) {
+            counts = new long[INITIAL_BUCKETS];
+            offset = index - INITIAL_BUCKETS / 2;
+        } else if (index < offset) {
+            int shift = Math.max(offset - index, counts.length / 2);
+            long[] grown = new long[counts.length + shift];
+            System.arraycopy(counts, 0, grown, shift, counts.length);
+            counts = grown;
+            offset -= shift;
+        } else if (index >= offset + counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index - offset + 1, counts.length + counts.length / 2));
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.rental.app.catalog;
+
+import com.rental.app.entities.Rental;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar copy of the searchable rental attributes, used to filter and sort rentals without querying the database.
+ * Each attribute is held in its own primitive array indexed by slot: price in cents, surface in whole square
+ * meters, and creation and update times in epoch milliseconds. A filter is a single pass over the arrays, and
+ * the first {@code limit} results are kept in a bounded heap, so no objects are allocated per rental.
+ */
+@Component
+public class RentalCatalog implements RentalIndex {
+
+    /**
+     * Order of the filter results. Ties are broken by ascending rental id.
+     */
+    public enum Sort {
+        PRICE_ASC, PRICE_DESC, SURFACE_ASC, SURFACE_DESC, NEWEST
+    }
+
+    /**
+     * Rentals matching a filter.
+     *
+     * @param ids The ids of the first matching rentals, in the requested order.
+     * @param total The number of rentals matching the filter.
+     */
+    public record Result(List<Long> ids, int total) {
+    }
+
+    static final long NO_PRICE = -1;
+    static final int NO_SURFACE = -1;
+
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal MIN_CENTS = MAX_CENTS.negate();
+    private static final BigDecimal MAX_SQUARE_METERS = BigDecimal.valueOf(Integer.MAX_VALUE);
+    private static final BigDecimal MIN_SQUARE_METERS = MAX_SQUARE_METERS.negate();
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int BYTES_PER_SLOT = 4 * Long.BYTES + Integer.BYTES;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final Timer queryTimer;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] priceCents = new long[INITIAL_CAPACITY];
+    private int[] surfaces = new int[INITIAL_CAPACITY];
+    private long[] createdAt = new long[INITIAL_CAPACITY];
+    private long[] updatedAt = new long[INITIAL_CAPACITY];
+    private int size;
+
+    public RentalCatalog(MeterRegistry meterRegistry) {
+        this.queryTimer = Timer.builder("app.catalog.query")
+                .description("Time spent filtering and sorting the rental catalog")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("app.catalog.size", this, RentalCatalog::size)
+                .description("Rentals held in the in-memory catalog")
+                .register(meterRegistry);
+        Gauge.builder("app.catalog.memory", this, RentalCatalog::memoryBytes)
+                .description("Heap allocated to the catalog attribute arrays")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void upsert(Collection<Rental> rentals) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            for (Rental rental : rentals) {
+                long updated = epochMillis(rental.getUpdatedAt());
+                long price = clampedCents(rental.getPrice());
+                int surface = clampedSquareMeters(rental.getSurface());
+                Integer slot = slots.get(rental.getId());
+                if (slot == null) {
+                    ensureCapacity(size + 1);
+                    slot = size++;
+                    slots.put(rental.getId(), slot);
+                    ids[slot] = rental.getId();
+                } else if (updatedAt[slot] > updated) {
+                    continue;
+                }
+                priceCents[slot] = price;
+                surfaces[slot] = surface;
+                createdAt[slot] = epochMillis(rental.getCreatedAt());
+                updatedAt[slot] = updated;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(Collection<Long> rentalIds) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            for (Long rentalId : rentalIds) {
+                Integer slot = slots.remove(rentalId);
+                if (slot == null) {
+                    continue;
+                }
+                int last = --size;
+                if (slot != last) {
+                    ids[slot] = ids[last];
+                    priceCents[slot] = priceCents[last];
+                    surfaces[slot] = surfaces[last];
+                    createdAt[slot] = createdAt[last];
+                    updatedAt[slot] = updatedAt[last];
+                    slots.put(ids[slot], slot);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Finds the rentals whose price and surface fall within the given inclusive bounds.
+     * Rentals without a price or surface only match when the corresponding range is unbounded.
+     *
+     * @param minPriceCents The minimum price in cents, or null for no lower bound.
+     * @param maxPriceCents The maximum price in cents, or null for no upper bound.
+     * @param minSurface The minimum surface in square meters, or null for no lower bound.
+     * @param maxSurface The maximum surface in square meters, or null for no upper bound.
+     * @param sort The order of the results.
+     * @param limit The maximum number of ids to return.
+     * @return The ids of the first {@code limit} matching rentals and the total number of matches.
+     */
+    public Result filter(Long minPriceCents, Long maxPriceCents, Integer minSurface, Integer maxSurface, Sort sort, int limit) {
+        long priceFrom = minPriceCents != null ? minPriceCents : (maxPriceCents != null ? 0 : NO_PRICE);
+        long priceTo = maxPriceCents != null ? maxPriceCents : Long.MAX_VALUE;
+        int surfaceFrom = minSurface != null ? minSurface : (maxSurface != null ? 0 : NO_SURFACE);
+        int surfaceTo = maxSurface != null ? maxSurface : Integer.MAX_VALUE;
+
+        long start = System.nanoTime();
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            long[] sortColumn = switch (sort) {
+                case PRICE_ASC, PRICE_DESC -> priceCents;
+                case NEWEST -> createdAt;
+                case SURFACE_ASC, SURFACE_DESC -> null;
+            };
+            boolean descending = sort == Sort.PRICE_DESC || sort == Sort.SURFACE_DESC || sort == Sort.NEWEST;
+            TopK topK = new TopK(Math.max(limit, 0));
+            int total = 0;
+            // Slots are mostly in insertion order, so scanning from the end offers the newest rentals first
+            // and lets the heap reject older ones without reordering.
+            for (int slot = size - 1; slot >= 0; slot--) {
+                long price = priceCents[slot];
+                int surface = surfaces[slot];
+                if (price >= priceFrom && price <= priceTo && surface >= surfaceFrom && surface <= surfaceTo) {
+                    total++;
+                    long key = sortColumn != null ? sortColumn[slot] : surface;
+                    topK.offer(descending ? -key : key, ids[slot]);
+                }
+            }
+            return new Result(topK.drain(), total);
+        } finally {
+            readLock.unlock();
+            queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns the number of rentals in the catalog.
+     */
+    public int size() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return size;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the heap allocated to the attribute arrays, in bytes. The id-to-slot map is not included.
+     */
+    public long memoryBytes() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return (long) ids.length * BYTES_PER_SLOT;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Converts a price to whole cents, rounding half up.
+     *
+     * @param price The price, or null.
+     * @return The price in cents, or {@link #NO_PRICE} if the price is null.
+     * @throws ArithmeticException if the price in cents does not fit in a long.
+     */
+    public static long toCents(BigDecimal price) {
+        return price != null ? price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : NO_PRICE;
+    }
+
+    /**
+     * Converts a stored price to cents like {@link #toCents(BigDecimal)}, but saturates prices the column accepts
+     * and a long does not, so they sort after every other price instead of failing the indexing of the rental.
+     * Values are kept away from {@link Long#MIN_VALUE}, whose negation used for descending sorts overflows.
+     */
+    private static long clampedCents(BigDecimal price) {
+        if (price == null) {
+            return NO_PRICE;
+        }
+        BigDecimal cents = price.movePointRight(2).setScale(0, RoundingMode.HALF_UP);
+        return cents.max(MIN_CENTS).min(MAX_CENTS).longValue();
+    }
+
+    private static int clampedSquareMeters(BigDecimal surface) {
+        if (surface == null) {
+            return NO_SURFACE;
+        }
+        return surface.setScale(0, RoundingMode.HALF_UP).max(MIN_SQUARE_METERS).min(MAX_SQUARE_METERS).intValue();
+    }
+
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        priceCents = Arrays.copyOf(priceCents, newCapacity);
+        surfaces = Arrays.copyOf(surfaces, newCapacity);
+        createdAt = Arrays.copyOf(createdAt, newCapacity);
+        updatedAt = Arrays.copyOf(updatedAt, newCapacity);
+    }
+
+    /**
+     * Keeps the {@code k} smallest (key, id) pairs seen, in a max-heap backed by primitive arrays.
+     */
+    private static final class TopK {
+
+        private final long[] keys;
+        private final long[] ids;
+        private int size;
+
+        TopK(int k) {
+            this.keys = new long[k];
+            this.ids = new long[k];
+        }
+
+        void offer(long key, long id) {
+            if (size < keys.length) {
+                keys[size] = key;
+                ids[size] = id;
+                siftUp(size++);
+            } else if (size > 0 && less(key, id, keys[0], ids[0])) {
+                keys[0] = key;
+                ids[0] = id;
+                siftDown(0);
+            }
+        }
+
+        List<Long> drain() {
+            Long[] sorted = new Long[size];
+            while (size > 0) {
+                sorted[size - 1] = ids[0];
+                size--;
+                keys[0] = keys[size];
+                ids[0] = ids[size];
+                siftDown(0);
+            }
+            return new ArrayList<>(Arrays.asList(sorted));
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!less(keys[parent], ids[parent], keys[index], ids[index])) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int largest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && less(keys[largest], ids[largest], keys[left], ids[left])) {
+                    largest = left;
+                }
+                if (right < size && less(keys[largest], ids[largest], keys[right], ids[right])) {
+                    largest = right;
+                }
+                if (largest == index) {
+                    return;
+                }
+                swap(index, largest);
+                index = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long key = keys[a];
+            keys[a] = keys[b];
+            keys[b] = key;
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+        }
+
+        private static boolean less(long key, long id, long otherKey, long otherId) {
+            return key < otherKey || (key == otherKey && id < otherId);
+        }
+    }
+}
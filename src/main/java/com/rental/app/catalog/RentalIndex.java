@@ -0,0 +1,23 @@
+package com.rental.app.catalog;
+
+import com.rental.app.entities.Rental;
+
+import java.util.Collection;
+
+/**
+ * In-memory structure that mirrors the RENTALS table.
+ * Implementations are kept in sync by {@link RentalIndexer} and must be safe for concurrent reads and writes.
+ */
+public interface RentalIndex {
+
+    /**
+     * Adds the given rentals or replaces the indexed version of them.
+     * A rental older than the indexed version, based on {@code updated_at}, is ignored.
+     */
+    void upsert(Collection<Rental> rentals);
+
+    /**
+     * Removes the given rentals. Unknown ids are ignored.
+     */
+    void remove(Collection<Long> rentalIds);
+}
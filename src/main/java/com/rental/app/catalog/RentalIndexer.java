@@ -0,0 +1,74 @@
+package com.rental.app.catalog;
+
+import com.rental.app.dtos.RentalChangesRecord;
+import com.rental.app.events.RentalChangedEvent;
+import com.rental.app.services.RentalService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Keeps every {@link RentalIndex} in sync with the database.
+ * Writes made through this instance are applied as soon as their transaction commits. The rental change
+ * feed is also followed periodically; the first pass loads the whole catalog page by page, and later passes
+ * pick up writes made by other instances or missed while the application was starting.
+ */
+@Component
+public class RentalIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalIndexer.class);
+    private static final int PAGE_SIZE = 1000;
+
+    private final RentalService rentalService;
+    private final List<RentalIndex> indexes;
+    private String cursor;
+
+    public RentalIndexer(RentalService rentalService, List<RentalIndex> indexes) {
+        this.rentalService = rentalService;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Applies a committed rental change to every index.
+     */
+    @TransactionalEventListener
+    public void onRentalChanged(RentalChangedEvent event) {
+        for (RentalIndex index : indexes) {
+            if (event.isDeleted()) {
+                index.remove(List.of(event.rentalId()));
+            } else {
+                index.upsert(List.of(event.rental()));
+            }
+        }
+    }
+
+    /**
+     * Reads the change feed from the last position up to its end and applies it to every index.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.refresh-interval:PT10S}")
+    public synchronized void refresh() {
+        long start = System.nanoTime();
+        int changed = 0;
+        int deleted = 0;
+        RentalChangesRecord changes;
+        do {
+            changes = rentalService.getRentalChanges(cursor, PAGE_SIZE);
+            for (RentalIndex index : indexes) {
+                index.upsert(changes.rentals());
+                index.remove(changes.deleted());
+            }
+            changed += changes.rentals().size();
+            deleted += changes.deleted().size();
+            cursor = changes.cursor();
+        } while (changes.hasMore());
+
+        if (changed > 0 || deleted > 0) {
+            logger.info("Indexed {} changed and {} deleted rentals in {} ms", changed, deleted,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.rental.app.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.app.dtos.RentalsRecord;
+import com.rental.app.entities.Rental;
+import com.rental.app.services.RentalService;
+import com.rental.app.utils.ContentCodings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static com.rental.app.config.ContentNegotiationConfig.APPLICATION_SMILE_VALUE;
+
+/**
+ * Caches the serialized body of the full rentals list, once per response format.
+ * Requests are answered from the cached bytes, including a pre-compressed copy for clients accepting gzip.
+ * A rental change or an entry older than the maximum age marks the cache stale: readers keep getting the
+ * previous bytes while a single background task reloads the rentals once and re-renders every cached format.
+ * Only the very first request for a format waits for a render. The cached bytes stay within the configured
+ * budget, except for a format that does not fit: it is still cached, outside the budget, since rendering it for each
+ * request would cost more memory and the very load the cache removes, and a warning is logged once.
+ */
+@Component
+public class RentalListCache implements RentalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalListCache.class);
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    /**
+     * The formats the rentals list is rendered in, the preferred one first.
+     */
+    public static final List<MediaType> MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private final RentalService rentalService;
+    private final Map<MediaType, ObjectMapper> objectMappers;
+    private final Duration maxAge;
+    private final long maxBytes;
+    private final long gzipThreshold;
+    private final Map<MediaType, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<MediaType, CompletableFuture<Entry>> coldRenders = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final Set<MediaType> overBudget = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rental-list-cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+
+    public RentalListCache(RentalService rentalService,
+                           ObjectMapper objectMapper,
+                           MappingJackson2CborHttpMessageConverter cborConverter,
+                           MappingJackson2SmileHttpMessageConverter smileConverter,
+                           @Value("${app.rentals.cache.max-age:PT30S}") Duration maxAge,
+                           @Value("${app.rentals.cache.max-size:32MB}") DataSize maxSize,
+                           @Value("${server.compression.min-response-size:2KB}") DataSize gzipThreshold,
+                           MeterRegistry meterRegistry) {
+        this.rentalService = rentalService;
+        this.objectMappers = Map.of(
+                MediaType.APPLICATION_JSON, objectMapper,
+                MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper(),
+                APPLICATION_SMILE, smileConverter.getObjectMapper());
+        this.maxAge = maxAge;
+        this.maxBytes = maxSize.toBytes();
+        this.gzipThreshold = gzipThreshold.toBytes();
+        this.hits = requests(meterRegistry, "hit");
+        this.staleHits = requests(meterRegistry, "stale");
+        this.misses = requests(meterRegistry, "miss");
+        Gauge.builder("app.rentals.cache.size", cachedBytes, AtomicLong::get)
+                .description("Bytes held by the rendered rentals list cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("app.rentals.cache.requests")
+                .description("Rentals list requests by cache outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A rendered rentals list.
+     *
+     * @param mediaType The format of the body.
+     * @param body The serialized list.
+     * @param gzipped Whether the body is gzip compressed.
+     */
+    public record Rendered(MediaType mediaType, byte[] body, boolean gzipped) {
+    }
+
+    private record Entry(byte[] body, byte[] gzipped, long generation, long renderedAt) {
+
+        long size() {
+            return body.length + (gzipped != null ? gzipped.length : 0);
+        }
+    }
+
+    /**
+     * Returns the rentals list in the format preferred by the Accept header, compressed if the client accepts gzip.
+     * The result may predate the latest changes by the time it takes to re-render it.
+     *
+     * @param accept The Accept header of the request, or null.
+     * @param acceptEncoding The Accept-Encoding header of the request, or null.
+     * @return The rendered list, or null if the client accepts none of the {@link #MEDIA_TYPES}.
+     */
+    public Rendered get(String accept, String acceptEncoding) {
+        MediaType mediaType = negotiate(accept);
+        if (mediaType == null) {
+            return null;
+        }
+        boolean acceptsGzip = ContentCodings.acceptsGzip(acceptEncoding);
+        Entry entry = entries.get(mediaType);
+        if (entry == null) {
+            misses.increment();
+            entry = renderCold(mediaType);
+        } else if (isStale(entry)) {
+            staleHits.increment();
+            refresh();
+        } else {
+            hits.increment();
+        }
+        return acceptsGzip && entry.gzipped() != null
+                ? new Rendered(mediaType, entry.gzipped(), true)
+                : new Rendered(mediaType, entry.body(), false);
+    }
+
+    @Override
+    public void upsert(Collection<Rental> rentals) {
+        if (!rentals.isEmpty()) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void remove(Collection<Long> rentalIds) {
+        if (!rentalIds.isEmpty()) {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        if (!entries.isEmpty()) {
+            refresh();
+        }
+    }
+
+    private boolean isStale(Entry entry) {
+        return entry.generation() != generation.get() || System.nanoTime() - entry.renderedAt() > maxAge.toNanos();
+    }
+
+    /**
+     * Schedules a re-render of every cached format unless one is already running.
+     */
+    private void refresh() {
+        if (refreshing.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    long renderGeneration = generation.get();
+                    List<Rental> rentals = rentalService.getAllRentals();
+                    for (MediaType mediaType : entries.keySet()) {
+                        store(mediaType, render(mediaType, rentals, renderGeneration));
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to refresh the rentals list cache", e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Renders a format that is not cached yet. Concurrent requests for the same format share one render.
+     */
+    private Entry renderCold(MediaType mediaType) {
+        CompletableFuture<Entry> render = new CompletableFuture<>();
+        CompletableFuture<Entry> inFlight = coldRenders.putIfAbsent(mediaType, render);
+        if (inFlight == null) {
+            try {
+                long renderGeneration = generation.get();
+                Entry entry = render(mediaType, rentalService.getAllRentals(), renderGeneration);
+                store(mediaType, entry);
+                render.complete(entry);
+            } catch (RuntimeException e) {
+                render.completeExceptionally(e);
+            } finally {
+                coldRenders.remove(mediaType, render);
+            }
+            inFlight = render;
+        }
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Entry render(MediaType mediaType, List<Rental> rentals, long renderGeneration) {
+        try {
+            byte[] body = objectMappers.get(mediaType).writeValueAsBytes(new RentalsRecord(rentals));
+            byte[] gzipped = body.length >= gzipThreshold ? gzip(body) : null;
+            return new Entry(body, gzipped, renderGeneration, System.nanoTime());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render the rentals list", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(body);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Replaces the cached entry of a format. An entry that would exceed the memory budget is kept outside of it.
+     */
+    private synchronized void store(MediaType mediaType, Entry entry) {
+        Entry previous = entries.put(mediaType, entry);
+        boolean wasOverBudget = overBudget.remove(mediaType);
+        if (previous != null && !wasOverBudget) {
+            cachedBytes.addAndGet(-previous.size());
+        }
+        if (cachedBytes.get() + entry.size() <= maxBytes) {
+            cachedBytes.addAndGet(entry.size());
+        } else {
+            overBudget.add(mediaType);
+            if (!wasOverBudget) {
+                logger.warn("Rentals list as {} takes {} bytes and does not fit in the cache, keeping it outside of it",
+                        mediaType, entry.size());
+            }
+        }
+    }
+
+    private static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType mediaType : MEDIA_TYPES) {
+            // The most specific range including a format decides, so application/*;q=0 excludes CBOR and Smile too.
+            for (MediaType acceptedType : accepted) {
+                if (acceptedType.includes(mediaType)) {
+                    if (acceptedType.getQualityValue() > 0) {
+                        return mediaType;
+                    }
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
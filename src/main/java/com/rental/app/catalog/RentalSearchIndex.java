@@ -0,0 +1,403 @@
+package com.rental.app.catalog;
+
+import com.rental.app.entities.Rental;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Inverted index over the name and description of every rental, ranked with BM25.
+ * Terms are lower-cased and stripped of accents; a name term counts twice as much as a description term.
+ * Each query term also matches the indexed terms it is a prefix of, at a reduced weight, so that partially
+ * typed words already return results. Large batches, such as the initial load, are tokenized in parallel.
+ * Documents are numbered densely and posting lists are primitive arrays, so scoring a query does not box.
+ */
+@Component
+public class RentalSearchIndex implements RentalIndex {
+
+    /**
+     * Rentals matching a query.
+     *
+     * @param ids The ids of the rentals of the requested page, best match first.
+     * @param total The number of rentals matching the query.
+     */
+    public record Result(List<Long> ids, int total) {
+    }
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 2;
+    private static final double PREFIX_WEIGHT = 0.5;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int PARALLEL_THRESHOLD = 512;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final Timer queryTimer;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private long[] updatedAt = new long[INITIAL_CAPACITY];
+    private String[][] terms = new String[INITIAL_CAPACITY][];
+    private int[] freeSlots = new int[0];
+    private int freeCount;
+    private int slotCount;
+    private long totalLength;
+
+    public RentalSearchIndex(MeterRegistry meterRegistry) {
+        this.queryTimer = Timer.builder("app.search.query")
+                .description("Time spent ranking full-text rental searches")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("app.search.documents", this, RentalSearchIndex::documentCount)
+                .description("Rentals held in the full-text search index")
+                .register(meterRegistry);
+        Gauge.builder("app.search.terms", this, RentalSearchIndex::termCount)
+                .description("Distinct terms held in the full-text search index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void upsert(Collection<Rental> rentals) {
+        Stream<Rental> stream = rentals.size() >= PARALLEL_THRESHOLD ? rentals.parallelStream() : rentals.stream();
+        List<Document> analyzed = stream.map(RentalSearchIndex::analyze).toList();
+
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            for (Document document : analyzed) {
+                Integer previous = slots.get(document.id);
+                if (previous != null) {
+                    if (updatedAt[previous] > document.updatedAt) {
+                        continue;
+                    }
+                    unindex(previous);
+                }
+                index(document);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(Collection<Long> rentalIds) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            for (Long rentalId : rentalIds) {
+                Integer slot = slots.get(rentalId);
+                if (slot != null) {
+                    unindex(slot);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Ranks the rentals matching the given free-text query.
+     *
+     * @param query The text typed by the user.
+     * @param page The zero-based page to return.
+     * @param size The number of rentals per page.
+     * @return The ids of the rentals of the requested page and the total number of matches.
+     */
+    public Result search(String query, int page, int size) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        if (queryTerms.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+
+        return queryTimer.record(() -> {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                Scores scores = new Scores(slotCount);
+                for (String queryTerm : queryTerms) {
+                    score(queryTerm, scores);
+                }
+                return new Result(topIds(scores, page, size), scores.matched);
+            } finally {
+                readLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Returns the number of rentals in the index.
+     */
+    public int documentCount() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return slots.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of distinct terms in the index.
+     */
+    public int termCount() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return postings.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return Stream.of(NON_WORD.split(normalized.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private void score(String queryTerm, Scores scores) {
+        Postings exact = postings.get(queryTerm);
+        if (exact != null) {
+            accumulate(exact, 1.0, scores);
+        }
+        if (queryTerm.length() < MIN_PREFIX_LENGTH) {
+            return;
+        }
+        int expansions = 0;
+        for (Postings expansion : postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).values()) {
+            if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            accumulate(expansion, PREFIX_WEIGHT, scores);
+        }
+    }
+
+    private void accumulate(Postings termPostings, double weight, Scores scores) {
+        int documentCount = slots.size();
+        double averageLength = (double) totalLength / documentCount;
+        double idf = Math.log(1 + (documentCount - termPostings.size + 0.5) / (termPostings.size + 0.5));
+        for (int i = 0; i < termPostings.size; i++) {
+            int slot = termPostings.slots[i];
+            int frequency = termPostings.frequencies[i];
+            double lengthNorm = 1 - B + B * lengths[slot] / averageLength;
+            scores.add(slot, weight * idf * frequency * (K1 + 1) / (frequency + K1 * lengthNorm));
+        }
+    }
+
+    /**
+     * Selects the requested page with a min-heap holding the best {@code (page + 1) * size} slots.
+     * Higher scores rank first; equal scores rank by ascending rental id.
+     */
+    private List<Long> topIds(Scores scores, int page, int size) {
+        long wanted = (long) (page + 1) * size;
+        if (size <= 0 || page < 0 || wanted > Integer.MAX_VALUE) {
+            return List.of();
+        }
+        int[] heap = new int[(int) Math.min(wanted, scores.matched)];
+        int heapSize = 0;
+        for (int i = 0; i < scores.matched; i++) {
+            int slot = scores.touched[i];
+            if (heapSize < heap.length) {
+                heap[heapSize] = slot;
+                siftUp(heap, heapSize++, scores.values);
+            } else if (heap.length > 0 && ranksBelow(heap[0], slot, scores.values)) {
+                heap[0] = slot;
+                siftDown(heap, heapSize, scores.values);
+            }
+        }
+
+        Long[] ranked = new Long[heapSize];
+        while (heapSize > 0) {
+            ranked[--heapSize] = ids[heap[0]];
+            heap[0] = heap[heapSize];
+            siftDown(heap, heapSize, scores.values);
+        }
+        int from = page * size;
+        if (from >= ranked.length) {
+            return List.of();
+        }
+        return new ArrayList<>(Arrays.asList(ranked).subList(from, ranked.length));
+    }
+
+    private boolean ranksBelow(int slot, int other, double[] values) {
+        return values[slot] < values[other] || (values[slot] == values[other] && ids[slot] > ids[other]);
+    }
+
+    private void siftUp(int[] heap, int index, double[] values) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!ranksBelow(heap[index], heap[parent], values)) {
+                return;
+            }
+            int swap = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = swap;
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, double[] values) {
+        int index = 0;
+        while (true) {
+            int lowest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && ranksBelow(heap[left], heap[lowest], values)) {
+                lowest = left;
+            }
+            if (right < size && ranksBelow(heap[right], heap[lowest], values)) {
+                lowest = right;
+            }
+            if (lowest == index) {
+                return;
+            }
+            int swap = heap[lowest];
+            heap[lowest] = heap[index];
+            heap[index] = swap;
+            index = lowest;
+        }
+    }
+
+    private void index(Document document) {
+        int slot = allocateSlot();
+        slots.put(document.id, slot);
+        ids[slot] = document.id;
+        lengths[slot] = document.length;
+        updatedAt[slot] = document.updatedAt;
+        terms[slot] = document.frequencies.keySet().toArray(String[]::new);
+        totalLength += document.length;
+        document.frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new Postings()).add(slot, frequency));
+    }
+
+    private void unindex(int slot) {
+        for (String term : terms[slot]) {
+            Postings termPostings = postings.get(term);
+            termPostings.remove(slot);
+            if (termPostings.size == 0) {
+                postings.remove(term);
+            }
+        }
+        slots.remove(ids[slot]);
+        totalLength -= lengths[slot];
+        terms[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeSlots.length * 2));
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int newCapacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, newCapacity);
+            lengths = Arrays.copyOf(lengths, newCapacity);
+            updatedAt = Arrays.copyOf(updatedAt, newCapacity);
+            terms = Arrays.copyOf(terms, newCapacity);
+        }
+        return slotCount++;
+    }
+
+    private static Document analyze(Rental rental) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        List<String> nameTerms = tokenize(rental.getName());
+        List<String> descriptionTerms = tokenize(rental.getDescription());
+        nameTerms.forEach(term -> frequencies.merge(term, NAME_WEIGHT, Integer::sum));
+        descriptionTerms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        int length = NAME_WEIGHT * nameTerms.size() + descriptionTerms.size();
+        return new Document(rental.getId(), length, frequencies, epochMillis(rental.getUpdatedAt()));
+    }
+
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+    }
+
+    private record Document(Long id, int length, Map<String, Integer> frequencies, long updatedAt) {
+    }
+
+    /**
+     * Documents containing a term and the frequency of the term in each of them.
+     */
+    private static final class Postings {
+
+        private int[] slots = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int slot, int frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Score accumulator of a single query, indexed by document slot.
+     */
+    private static final class Scores {
+
+        private final double[] values;
+        private final int[] touched;
+        private int matched;
+
+        Scores(int slotCount) {
+            this.values = new double[slotCount];
+            this.touched = new int[slotCount];
+        }
+
+        void add(int slot, double score) {
+            if (values[slot] == 0) {
+                touched[matched++] = slot;
+            }
+            values[slot] += score;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.rental.app.catalog;
+
+import com.rental.app.dtos.RentalStatsRecord;
+import com.rental.app.dtos.RentalStatsRecord.BucketRecord;
+import com.rental.app.dtos.RentalStatsRecord.DistributionRecord;
+import com.rental.app.entities.Rental;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Distribution of rental prices and prices per square meter, maintained incrementally.
+ * Each distribution keeps a quantile sketch, a fixed-bucket histogram and a running sum, and the value last
+ * counted for every rental is remembered so that updates and deletions can be subtracted again. Reading the
+ * statistics costs a pass over a few hundred buckets, whatever the number of rentals.
+ */
+@Component
+public class RentalStatistics implements RentalIndex {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double[] PERCENTILES = {0.25, 0.5, 0.75, 0.9, 0.99};
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Counted> counted = new HashMap<>();
+    private final Distribution price;
+    private final Distribution pricePerSquareMeter;
+
+    public RentalStatistics(@Value("${app.stats.price-buckets}") double[] priceBuckets,
+                            @Value("${app.stats.price-per-square-meter-buckets}") double[] pricePerSquareMeterBuckets) {
+        this.price = new Distribution(priceBuckets);
+        this.pricePerSquareMeter = new Distribution(pricePerSquareMeterBuckets);
+    }
+
+    @Override
+    public void upsert(Collection<Rental> rentals) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            for (Rental rental : rentals) {
+                long updatedAt = epochMillis(rental.getUpdatedAt());
+                Counted previous = counted.get(rental.getId());
+                if (previous != null) {
+                    if (previous.updatedAt > updatedAt) {
+                        continue;
+                    }
+                    uncount(previous);
+                }
+                Counted current = new Counted(updatedAt, priceOf(rental), pricePerSquareMeterOf(rental));
+                counted.put(rental.getId(), current);
+                price.add(current.price);
+                pricePerSquareMeter.add(current.pricePerSquareMeter);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(Collection<Long> rentalIds) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            for (Long rentalId : rentalIds) {
+                Counted previous = counted.remove(rentalId);
+                if (previous != null) {
+                    uncount(previous);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current statistics. Percentiles, minimum and maximum are accurate to within 1%.
+     */
+    public RentalStatsRecord snapshot() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return new RentalStatsRecord(counted.size(), price.snapshot(), pricePerSquareMeter.snapshot());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private void uncount(Counted previous) {
+        price.remove(previous.price);
+        pricePerSquareMeter.remove(previous.pricePerSquareMeter);
+    }
+
+    private static double priceOf(Rental rental) {
+        return rental.getPrice() != null ? rental.getPrice().doubleValue() : Double.NaN;
+    }
+
+    private static double pricePerSquareMeterOf(Rental rental) {
+        BigDecimal surface = rental.getSurface();
+        if (rental.getPrice() == null || surface == null || surface.signum() <= 0) {
+            return Double.NaN;
+        }
+        return rental.getPrice().doubleValue() / surface.doubleValue();
+    }
+
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+    }
+
+    private static Double round(double value) {
+        return Double.isNaN(value) ? null : Math.round(value * 100) / 100.0;
+    }
+
+    /**
+     * Values last counted for a rental. NaN marks a value the rental does not have.
+     */
+    private record Counted(long updatedAt, double price, double pricePerSquareMeter) {
+    }
+
+    private static final class Distribution {
+
+        private final QuantileSketch sketch = new QuantileSketch(RELATIVE_ACCURACY);
+        private final FixedBucketHistogram histogram;
+        private double sum;
+
+        Distribution(double[] bounds) {
+            this.histogram = new FixedBucketHistogram(bounds);
+        }
+
+        void add(double value) {
+            if (!Double.isNaN(value)) {
+                sketch.add(value);
+                histogram.add(value);
+                sum += value;
+            }
+        }
+
+        void remove(double value) {
+            if (!Double.isNaN(value)) {
+                sketch.remove(value);
+                histogram.remove(value);
+                sum -= value;
+            }
+        }
+
+        DistributionRecord snapshot() {
+            long count = sketch.count();
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (double percentile : PERCENTILES) {
+                percentiles.put("p" + Math.round(percentile * 100), round(sketch.quantile(percentile)));
+            }
+            List<BucketRecord> buckets = new ArrayList<>(histogram.buckets());
+            for (int i = 0; i < histogram.buckets(); i++) {
+                buckets.add(new BucketRecord(histogram.lowerBound(i), histogram.upperBound(i), histogram.count(i)));
+            }
+            return new DistributionRecord(count, round(sketch.min()), round(sketch.max()),
+                    count > 0 ? round(sum / count) : null, percentiles, buckets);
+        }
+    }
+}
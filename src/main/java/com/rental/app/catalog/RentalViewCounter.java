@@ -0,0 +1,146 @@
+package com.rental.app.catalog;
+
+import com.rental.app.entities.Rental;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts rental views in memory and writes them to the rental_views table in batches.
+ * A view only increments two striped counters: the total used for ranking, and the delta waiting to be written.
+ * The deltas are flushed periodically and on shutdown as a single batch of upserts, so the database sees at most
+ * one write per viewed rental per interval. A flush is written in one transaction; if it fails, its deltas are added
+ * back and retried on the next one. Views of a rental deleted meanwhile are dropped by the upsert itself, which only
+ * writes rows for existing rentals. The persisted counts are loaded when the counter is created, before the first
+ * flush is scheduled and before requests are served.
+ */
+@Component
+public class RentalViewCounter implements RentalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalViewCounter.class);
+    private static final String UPSERT_VIEWS = "INSERT INTO rental_views (rental_id, views) SELECT id, ? FROM rentals "
+            + "WHERE id = ? ON DUPLICATE KEY UPDATE views = views + VALUES(views)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, LongAdder> totals = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+    private final Counter flushedViews;
+
+    public RentalViewCounter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushTimer = Timer.builder("app.views.flush")
+                .description("Time spent writing buffered rental views to the database")
+                .register(meterRegistry);
+        this.flushedViews = Counter.builder("app.views.flushed")
+                .description("Rental views written to the database")
+                .register(meterRegistry);
+        loadTotals();
+    }
+
+    /**
+     * Records one view of a rental.
+     */
+    public void recordView(Long rentalId) {
+        totals.computeIfAbsent(rentalId, id -> new LongAdder()).increment();
+        pending.computeIfAbsent(rentalId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Returns the ids of the most viewed rentals and their view counts, most viewed first.
+     *
+     * @param limit The maximum number of rentals to return.
+     */
+    public List<Map.Entry<Long, Long>> mostViewed(int limit) {
+        PriorityQueue<Map.Entry<Long, Long>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        totals.forEach((rentalId, views) -> {
+            long count = views.sum();
+            if (heap.size() < limit) {
+                heap.offer(Map.entry(rentalId, count));
+            } else if (limit > 0 && heap.peek().getValue() < count) {
+                heap.poll();
+                heap.offer(Map.entry(rentalId, count));
+            }
+        });
+        List<Map.Entry<Long, Long>> ranked = new ArrayList<>(heap);
+        ranked.sort(Map.Entry.<Long, Long>comparingByValue().reversed());
+        return ranked;
+    }
+
+    /**
+     * Writes the views recorded since the last flush.
+     */
+    @Scheduled(fixedDelayString = "${app.views.flush-interval:PT5S}")
+    public synchronized void flush() {
+        List<Object[]> deltas = new ArrayList<>();
+        pending.forEach((rentalId, views) -> {
+            long delta = views.sum();
+            if (delta > 0) {
+                views.add(-delta);
+                deltas.add(new Object[]{delta, rentalId});
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            // In one transaction, so a failed flush writes none of the deltas it adds back.
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(
+                    status -> jdbcTemplate.batchUpdate(UPSERT_VIEWS, deltas)));
+            flushedViews.increment(deltas.stream().mapToLong(delta -> (Long) delta[0]).sum());
+            logger.debug("Flushed views of {} rentals", deltas.size());
+        } catch (DataAccessException e) {
+            logger.warn("Failed to flush views of {} rentals, retrying on the next flush", deltas.size(), e);
+            deltas.forEach(delta -> pending.computeIfAbsent((Long) delta[1], id -> new LongAdder()).add((Long) delta[0]));
+        }
+    }
+
+    /**
+     * Loads the persisted view counts.
+     */
+    private void loadTotals() {
+        jdbcTemplate.query("SELECT rental_id, views FROM rental_views", resultSet -> {
+            totals.computeIfAbsent(resultSet.getLong(1), id -> new LongAdder()).add(resultSet.getLong(2));
+        });
+        logger.info("Loaded view counts of {} rentals", totals.size());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Override
+    public void upsert(Collection<Rental> rentals) {
+        // View counts do not depend on the rental attributes
+    }
+
+    @Override
+    public void remove(Collection<Long> rentalIds) {
+        rentalIds.forEach(rentalId -> {
+            totals.remove(rentalId);
+            pending.remove(rentalId);
+        });
+    }
+}
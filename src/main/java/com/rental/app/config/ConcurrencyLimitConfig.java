@@ -0,0 +1,52 @@
+package com.rental.app.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.app.limiter.ConcurrencyLimitFilter;
+import com.rental.app.limiter.EndpointGroup;
+import com.rental.app.limiter.GradientLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration class for the per-group concurrency limits.
+ * The limit of each {@link EndpointGroup} adapts between {@code app.concurrency.min-limit} and
+ * {@code app.concurrency.max-limit.<group>}. The filter runs before Spring Security, so rejected requests
+ * cost neither a JWT verification nor a server thread for longer than it takes to answer 503.
+ * Keep the sum of the maximum limits below {@code server.tomcat.threads.max} so that every group can always
+ * get threads, whatever the others do.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Value("${app.concurrency.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${app.concurrency.min-limit:2}")
+    private int minLimit;
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(Environment environment,
+                                                                                ObjectMapper objectMapper,
+                                                                                MeterRegistry meterRegistry) throws IOException {
+        Map<EndpointGroup, GradientLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+        for (EndpointGroup group : EndpointGroup.values()) {
+            int maxLimit = environment.getRequiredProperty("app.concurrency.max-limit." + group.key(), Integer.class);
+            limiters.put(group, new GradientLimiter(initialLimit, minLimit, maxLimit));
+        }
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limiters, objectMapper, meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,97 @@
+package com.rental.app.config;
+
+import com.rental.app.datasource.PrimaryPinning;
+import com.rental.app.datasource.ReplicaRoutingDataSource;
+import com.rental.app.datasource.WriteTrackingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration class for read/write splitting.
+ * Active only when {@code app.datasource.replica.urls} is set. Read-only transactions are served by
+ * the replicas and everything else by the primary configured through {@code spring.datasource.*}.
+ * The data source is chosen when a transaction gets its connection, so this requires
+ * {@code spring.jpa.open-in-view=false}: with a session open for the whole request, every transaction of a request
+ * would reuse the connection of its first one, and a write after a read-only call would go to a replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.urls")
+public class DataSourceRoutingConfig {
+
+    @Value("${app.datasource.replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.pin-after-write:PT5S}")
+    private Duration pinAfterWrite;
+
+    @Value("${app.datasource.replica.health-check-interval:PT5S}")
+    private Duration healthCheckInterval;
+
+    @Value("${spring.jpa.open-in-view:true}")
+    private boolean openInView;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public PrimaryPinning primaryPinning() {
+        return new PrimaryPinning(pinAfterWrite);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaDataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                                      PrimaryPinning primaryPinning, MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(replicaUrls.get(i).trim());
+            config.setUsername(replicaUsername);
+            config.setPassword(replicaPassword);
+            // Replicas connect lazily so that one being down does not prevent startup.
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, primaryPinning, healthCheckInterval);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 ReplicaRoutingDataSource replicaDataSource, PrimaryPinning primaryPinning) {
+        if (openInView) {
+            throw new IllegalStateException("Read replicas require spring.jpa.open-in-view=false");
+        }
+        LazyConnectionDataSourceProxy dataSource =
+                new LazyConnectionDataSourceProxy(new WriteTrackingDataSource(primaryDataSource, primaryPinning));
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
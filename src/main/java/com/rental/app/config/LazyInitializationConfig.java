@@ -0,0 +1,25 @@
+package com.rental.app.config;
+
+import com.rental.app.archive.MessageArchive;
+import com.rental.app.archive.MessageArchiver;
+import com.rental.app.catalog.RentalIndex;
+import com.rental.app.catalog.RentalIndexer;
+import com.rental.app.datasource.ReplicaRoutingDataSource;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the beans that stay eager when lazy initialization is enabled (fast-start profile).
+ * Scheduled tasks only start once their bean exists, so the rental indexes, their indexer, the replica
+ * health check and the message archive are created at startup. This also initializes JPA before the first request instead of during it.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerBackgroundBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(RentalIndexer.class, RentalIndex.class,
+                ReplicaRoutingDataSource.class, MessageArchive.class, MessageArchiver.class);
+    }
+}
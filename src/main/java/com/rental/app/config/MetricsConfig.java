@@ -0,0 +1,65 @@
+package com.rental.app.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for application metrics.
+ * Enables the {@link io.micrometer.core.annotation.Timed} annotation on service classes
+ * and publishes the hit ratio of every Hibernate second-level cache region and the depth of the
+ * asynchronous logging queue.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics,
+                                stats -> hitRatio(stats.getDomainDataRegionStatistics(region)))
+                        .description("Ratio of second-level cache lookups served from the cache")
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder asyncLoggingQueue() {
+        return registry -> {
+            if (LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext
+                    && loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).getAppender("ASYNC") instanceof AsyncAppender appender) {
+                Gauge.builder("logging.async.queue.size", appender, AsyncAppender::getNumberOfElementsInQueue)
+                        .description("Logging events waiting in the asynchronous queue")
+                        .register(registry);
+                Gauge.builder("logging.async.queue.remaining", appender, AsyncAppender::getRemainingCapacity)
+                        .description("Free slots in the asynchronous logging queue")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double hitRatio(CacheRegionStatistics regionStatistics) {
+        long hits = regionStatistics.getHitCount();
+        long lookups = hits + regionStatistics.getMissCount();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,92 @@
+package com.rental.app.config;
+
+import com.rental.app.controllers.AuthController;
+import com.rental.app.dtos.CreateRentalDto;
+import com.rental.app.dtos.ExportLineRecord;
+import com.rental.app.dtos.FilteredRentalsRecord;
+import com.rental.app.dtos.LoginDto;
+import com.rental.app.dtos.MessageDto;
+import com.rental.app.dtos.MessagePageRecord;
+import com.rental.app.dtos.MessageRecord;
+import com.rental.app.dtos.RegisterDto;
+import com.rental.app.dtos.RentalChangesRecord;
+import com.rental.app.dtos.RentalPageRecord;
+import com.rental.app.dtos.RentalStatsRecord;
+import com.rental.app.dtos.RentalsRecord;
+import com.rental.app.dtos.StoredMessageRecord;
+import com.rental.app.dtos.UpdateRentalDto;
+import com.rental.app.dtos.ViewedRentalsRecord;
+import com.rental.app.entities.Message;
+import com.rental.app.entities.Rental;
+import com.rental.app.entities.RentalTombstone;
+import com.rental.app.entities.RentalView;
+import com.rental.app.entities.User;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Configuration class for the GraalVM native image.
+ * Spring AOT already covers the beans, the JPA entities it manages and the types controllers read and return. The hints
+ * below add what is only reached by name or through reflection at runtime: the RSA key pair loaded into
+ * {@link JwtConfig}, the Ehcache configuration and its JAXB model, the caching provider named in the Hibernate
+ * properties, and every entity and DTO for Jackson, since some are serialized outside controllers (RentalListCache).
+ * Lombok only generates plain accessors and constructors at compile time, which the binding hints include.
+ * Nimbus JOSE signs and verifies through the JCA and parses JWTs into maps, so it needs no hints of its own.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.ApplicationRuntimeHints.class)
+public class NativeImageConfig {
+
+    static class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final Class<?>[] JSON_TYPES = {
+                User.class, Rental.class, Message.class, RentalTombstone.class, RentalView.class,
+                CreateRentalDto.class, UpdateRentalDto.class, LoginDto.class, RegisterDto.class, MessageDto.class,
+                MessageRecord.class, RentalsRecord.class, FilteredRentalsRecord.class, RentalPageRecord.class,
+                RentalChangesRecord.class, RentalStatsRecord.class, ViewedRentalsRecord.class, AuthController.TokenDto.class,
+                ExportLineRecord.class, StoredMessageRecord.class, MessagePageRecord.class
+        };
+
+        private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources()
+                    .registerPattern("app.key")
+                    .registerPattern("app.pub")
+                    .registerPattern("ehcache.xml")
+                    .registerPattern("ehcache-core.xsd")
+                    .registerPattern("ehcache-107-ext.xsd");
+            hints.reflection().registerType(TypeReference.of("org.ehcache.jsr107.EhcacheCachingProvider"),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            registerPackage(hints, classLoader, "org/ehcache/xml/model");
+            bindingHints.registerReflectionHints(hints.reflection(), JSON_TYPES);
+        }
+
+        private static void registerPackage(RuntimeHints hints, ClassLoader classLoader, String path) {
+            try {
+                for (Resource resource : new PathMatchingResourcePatternResolver(classLoader)
+                        .getResources("classpath*:" + path + "/*.class")) {
+                    String simpleName = resource.getFilename().replace(".class", "");
+                    if (simpleName.equals("package-info")) {
+                        continue;
+                    }
+                    hints.reflection().registerType(TypeReference.of(path.replace('/', '.') + "." + simpleName),
+                            MemberCategory.values());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to list " + path, e);
+            }
+        }
+    }
+}
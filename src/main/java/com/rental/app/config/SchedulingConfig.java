@@ -0,0 +1,12 @@
+package com.rental.app.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class enabling scheduled background tasks.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -21,11 +21,14 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import static com.rental.app.config.ContentNegotiationConfig.APPLICATION_SMILE_VALUE;
+
 /**
  * Controller responsible for handling authentication-related operations.
  * This includes user registration, login, and retrieving current user information.
@@ -37,10 +40,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
-    private static final String AUTHENTICATION_FAILED = "Authentication failed";
     private static final String INVALID_USER_REQUEST = "Invalid user request";
-    public static final String FAILED_TO_REGISTER_USER = "Failed to register user";
-    public static final String FAILED_TO_RETRIEVE_CURRENT_USER = "Failed to retrieve current user";
 
     private final UserInfoService userInfoService;
     private final AuthenticationManager authenticationManager;
@@ -62,16 +62,11 @@ public class AuthController {
     })
     @PostMapping("/register")
     public ResponseEntity<TokenDto> register(@Valid @RequestBody RegisterDto registerDto) {
-        try {
-            User user = Mapper.mapRegisterDtoToUser(registerDto);
-            userInfoService.addUser(user);
-            String token = authenticateAndGetToken(Mapper.mapRegisterDtoToLoginDto(registerDto));
-            logger.info("User registered successfully: {}", registerDto.getEmail());
-            return ResponseEntity.status(HttpStatus.OK).body(new TokenDto(token));
-        } catch (Exception e) {
-            logger.error("Error during user registration: {}", e.getMessage());
-            throw new RuntimeException(FAILED_TO_REGISTER_USER, e);
-        }
+        User user = Mapper.mapRegisterDtoToUser(registerDto);
+        userInfoService.addUser(user);
+        String token = authenticateAndGetToken(Mapper.mapRegisterDtoToLoginDto(registerDto));
+        logger.info("User registered successfully: {}", registerDto.getEmail());
+        return ResponseEntity.status(HttpStatus.OK).body(new TokenDto(token));
     }
 
     @SecurityRequirements
@@ -84,21 +79,16 @@ public class AuthController {
     })
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginDto loginDto) {
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(loginDto.getLogin(), loginDto.getPassword())
-            );
-            if (authentication.isAuthenticated()) {
-                String token = jwtService.generateToken(authentication);
-                logger.info("User logged in successfully: {}", loginDto.getLogin());
-                return ResponseEntity.ok(new TokenDto(token));
-            } else {
-                logger.warn("Authentication failed for user: {}", loginDto.getLogin());
-                return ResponseEntity.status(401).body("{\"message\": \"error\"}");
-            }
-        } catch (Exception e) {
-            logger.error("Error during login: {}", e.getMessage());
-            throw new RuntimeException(AUTHENTICATION_FAILED);
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(loginDto.getLogin(), loginDto.getPassword())
+        );
+        if (authentication.isAuthenticated()) {
+            String token = jwtService.generateToken(authentication);
+            logger.info("User logged in successfully: {}", loginDto.getLogin());
+            return ResponseEntity.ok(new TokenDto(token));
+        } else {
+            logger.warn("Authentication failed for user: {}", loginDto.getLogin());
+            return ResponseEntity.status(401).body("{\"message\": \"error\"}");
         }
     }
 
@@ -110,17 +100,12 @@ public class AuthController {
             @ApiResponse(responseCode = "401", description = "Not authenticated"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
-    @GetMapping(value = "/me", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/me", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     @SecurityRequirement(name = "Bearer Authentication")
     public ResponseEntity<User> getCurrentUser() {
-        try {
-            User currentUser = jwtService.getCurrentUser();
-            logger.info("Retrieved current user: {}", currentUser.getEmail());
-            return ResponseEntity.ok(currentUser);
-        } catch (Exception e) {
-            logger.error("Error retrieving current user: {}", e.getMessage());
-            throw new RuntimeException(FAILED_TO_RETRIEVE_CURRENT_USER);
-        }
+        User currentUser = jwtService.getCurrentUser();
+        logger.info("Retrieved current user: {}", currentUser.getEmail());
+        return ResponseEntity.ok(currentUser);
     }
 
     private String authenticateAndGetToken(LoginDto loginDto) {
@@ -131,7 +116,7 @@ public class AuthController {
             return jwtService.generateToken(authentication);
         } else {
             logger.warn("Invalid authentication request for user: {}", loginDto.getLogin());
-            throw new RuntimeException(INVALID_USER_REQUEST);
+            throw new BadCredentialsException(INVALID_USER_REQUEST);
         }
     }
 
@@ -1,6 +1,7 @@
 package com.rental.app.controllers;
 
 import com.rental.app.dtos.MessageDto;
+import com.rental.app.dtos.MessagePageRecord;
 import com.rental.app.dtos.MessageRecord;
 import com.rental.app.services.MessageService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,14 +17,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
  * Controller responsible for handling message-related operations.
- * This controller manages the sending of messages within the application.
+ * This controller manages the sending of messages within the application, and the history of the messages on a rental.
  */
 @RestController
 @RequestMapping("/api/messages")
@@ -52,14 +55,27 @@ public class MessagesController {
     })
     @PostMapping
     public ResponseEntity<MessageRecord> sendMessage(@Valid @RequestBody MessageDto messageDto) {
-        try {
-            messageService.addMessage(messageDto);
-            logger.info("Message sent successfully: {}", messageDto);
-            return ResponseEntity.status(HttpStatus.OK)
-                    .body(new MessageRecord(MESSAGE_SENT_SUCCESS));
-        } catch (Exception e) {
-            logger.error("Unexpected error: {}", messageDto, e);
-            throw new RuntimeException("An unexpected error occurred", e);
-        }
+        messageService.addMessage(messageDto);
+        logger.info("Message sent successfully: {}", messageDto);
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(new MessageRecord(MESSAGE_SENT_SUCCESS));
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Get the messages on a rental", description = "Retrieves the messages on a rental of the current user, newest first, one page at a time, including archived messages")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the messages",
+                     content = @Content(mediaType = "application/json",
+                                        schema = @Schema(implementation = MessagePageRecord.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "The rental is not owned by the current user"),
+        @ApiResponse(responseCode = "404", description = "Rental not found")
+    })
+    @GetMapping
+    public ResponseEntity<MessagePageRecord> getMessages(@RequestParam("rental") Long rentalId,
+                                                         @RequestParam(required = false) Long before,
+                                                         @RequestParam(defaultValue = "50") int limit) {
+        MessagePageRecord page = messageService.getRentalMessages(rentalId, before, limit);
+        logger.info("Retrieved {} messages of rental with ID: {}", page.messages().size(), rentalId);
+        return ResponseEntity.ok(page);
+    }
+}
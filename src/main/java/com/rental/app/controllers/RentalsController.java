@@ -1,11 +1,23 @@
 package com.rental.app.controllers;
 
+import com.rental.app.catalog.RentalCatalog;
+import com.rental.app.catalog.RentalListCache;
+import com.rental.app.dtos.FilteredRentalsRecord;
 import com.rental.app.dtos.MessageRecord;
 import com.rental.app.dtos.CreateRentalDto;
+import com.rental.app.dtos.RentalChangesRecord;
+import com.rental.app.dtos.RentalPageRecord;
+import com.rental.app.dtos.RentalStatsRecord;
 import com.rental.app.dtos.RentalsRecord;
 import com.rental.app.dtos.UpdateRentalDto;
+import com.rental.app.dtos.ViewedRentalsRecord;
 import com.rental.app.entities.Rental;
+import com.rental.app.exceptions.InvalidRequestException;
+import com.rental.app.exceptions.ResourceNotFoundException;
+import com.rental.app.images.CachedImage;
+import com.rental.app.images.ImageCache;
 import com.rental.app.services.RentalService;
+import com.rental.app.services.UploadExecutor;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -25,12 +37,19 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.math.BigDecimal;
 import java.net.MalformedURLException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.rental.app.config.ContentNegotiationConfig.APPLICATION_SMILE_VALUE;
 
 /**
  * Controller responsible for handling rental-related operations.
@@ -46,13 +65,21 @@ public class RentalsController {
     private static final Logger logger = LoggerFactory.getLogger(RentalsController.class);
     private static final String RENTAL_CREATED = "Rental created !";
     private static final String RENTAL_UPDATED = "Rental updated !";
+    private static final String RENTAL_DELETED = "Rental deleted !";
     @Value("${app.upload.dir:${user.home}}")
     private String uploadDir;
 
     private final RentalService rentalService;
+    private final RentalListCache rentalListCache;
+    private final UploadExecutor uploadExecutor;
+    private final ImageCache imageCache;
 
-    public RentalsController(RentalService rentalService) {
+    public RentalsController(RentalService rentalService, RentalListCache rentalListCache, UploadExecutor uploadExecutor,
+                             ImageCache imageCache) {
         this.rentalService = rentalService;
+        this.rentalListCache = rentalListCache;
+        this.uploadExecutor = uploadExecutor;
+        this.imageCache = imageCache;
     }
 
     @Operation(summary = "Get all rentals", description = "Retrieves a list of all available rentals")
@@ -62,16 +89,118 @@ public class RentalsController {
                             schema = @Schema(type = "array", implementation = RentalsRecord.class))),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
-    @GetMapping
-    public ResponseEntity<RentalsRecord> getAllRentals() {
-        try {
-            List<Rental> rentals = rentalService.getAllRentals();
-            logger.info("Retrieved {} rentals", rentals.size());
-            return ResponseEntity.ok(new RentalsRecord(rentals));
-        } catch (Exception e) {
-            logger.error("Error retrieving all rentals", e);
-            throw new RuntimeException("An unexpected error occurred while retrieving rentals", e);
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<byte[]> getAllRentals(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+            throws HttpMediaTypeNotAcceptableException {
+        RentalListCache.Rendered rentals = rentalListCache.get(accept, acceptEncoding);
+        if (rentals == null) {
+            throw new HttpMediaTypeNotAcceptableException(RentalListCache.MEDIA_TYPES);
         }
+        logger.info("Retrieved rentals as {} ({} bytes)", rentals.mediaType(), rentals.body().length);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(rentals.mediaType())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (rentals.gzipped()) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(rentals.body());
+    }
+
+    @Operation(summary = "Get my rentals", description = "Retrieves the rentals owned by the current user, one page at a time")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the rentals",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RentalPageRecord.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping(value = "/mine", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<RentalPageRecord> getMyRentals(@RequestParam(required = false) Long after,
+                                                         @RequestParam(defaultValue = "50") int limit) {
+        RentalPageRecord page = rentalService.getCurrentUserRentals(after, limit);
+        logger.info("Retrieved {} rentals of the current user", page.rentals().size());
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "Filter rentals", description = "Filters rentals by price and surface range and returns the first results in the requested order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully filtered rentals",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = FilteredRentalsRecord.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping(value = "/filter", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<FilteredRentalsRecord> filterRentals(@RequestParam(required = false) BigDecimal minPrice,
+                                                               @RequestParam(required = false) BigDecimal maxPrice,
+                                                               @RequestParam(required = false) Integer minSurface,
+                                                               @RequestParam(required = false) Integer maxSurface,
+                                                               @RequestParam(defaultValue = "PRICE_ASC") RentalCatalog.Sort sort,
+                                                               @RequestParam(defaultValue = "50") int limit) {
+        FilteredRentalsRecord result = rentalService.filterRentals(minPrice, maxPrice, minSurface, maxSurface, sort, limit);
+        logger.info("Filtered {} of {} matching rentals", result.rentals().size(), result.total());
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(summary = "Search rentals", description = "Full-text search over rental names and descriptions, best match first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully searched rentals",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = FilteredRentalsRecord.class))),
+            @ApiResponse(responseCode = "400", description = "Empty query"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<FilteredRentalsRecord> searchRentals(@RequestParam String q,
+                                                               @RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(defaultValue = "20") int size) {
+        FilteredRentalsRecord result = rentalService.searchRentals(q, page, size);
+        logger.info("Found {} rentals matching the search", result.total());
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(summary = "Get most viewed rentals", description = "Retrieves the most viewed rentals with their view counts")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the rentals",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ViewedRentalsRecord.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping(value = "/most-viewed", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ViewedRentalsRecord> getMostViewedRentals(@RequestParam(defaultValue = "10") int limit) {
+        ViewedRentalsRecord mostViewed = rentalService.getMostViewedRentals(limit);
+        logger.info("Retrieved {} most viewed rentals", mostViewed.rentals().size());
+        return ResponseEntity.ok(mostViewed);
+    }
+
+    @Operation(summary = "Get rental statistics", description = "Retrieves the distribution of rental prices and prices per square meter")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the statistics",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RentalStatsRecord.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping(value = "/stats", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<RentalStatsRecord> getRentalStatistics() {
+        RentalStatsRecord stats = rentalService.getRentalStatistics();
+        logger.info("Retrieved statistics of {} rentals", stats.count());
+        return ResponseEntity.ok(stats);
+    }
+
+    @Operation(summary = "Get rental changes", description = "Retrieves the rentals created, updated or deleted since a cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the changes",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RentalChangesRecord.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping(value = "/changes", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<RentalChangesRecord> getRentalChanges(@RequestParam(required = false) String since,
+                                                                @RequestParam(defaultValue = "500") int limit) {
+        RentalChangesRecord changes = rentalService.getRentalChanges(since, limit);
+        logger.info("Retrieved {} changed and {} deleted rentals", changes.rentals().size(), changes.deleted().size());
+        return ResponseEntity.ok(changes);
     }
 
     @Operation(summary = "Get a rental by ID", description = "Retrieves a specific rental by its ID")
@@ -82,16 +211,11 @@ public class RentalsController {
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "404", description = "Rental not found")
     })
-    @GetMapping("/{id}")
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<Rental> getRentalById(@PathVariable Long id) {
-        try {
-            Rental rental = rentalService.getRentalById(id);
-            logger.info("Retrieved rental with id: {}", id);
-            return ResponseEntity.ok(rental);
-        } catch (Exception e) {
-            logger.error("Error retrieving rental with id: {}", id, e);
-            throw new RuntimeException("An unexpected error occurred while retrieving the rental", e);
-        }
+        Rental rental = rentalService.viewRental(id);
+        logger.info("Retrieved rental with id: {}", id);
+        return ResponseEntity.ok(rental);
     }
 
     @Operation(summary = "Create a new rental", description = "Creates a new rental listing")
@@ -100,18 +224,26 @@ public class RentalsController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = MessageRecord.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input"),
-            @ApiResponse(responseCode = "401", description = "Unauthorized")
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "503", description = "Too many uploads in progress")
     })
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<MessageRecord> createRental(@Valid @ModelAttribute CreateRentalDto createRentalDto) {
-        try {
-            rentalService.addRental(createRentalDto);
-            logger.info("Created new rental: {}", createRentalDto);
-            return ResponseEntity.status(HttpStatus.OK).body(new MessageRecord(RENTAL_CREATED));
-        } catch (Exception e) {
-            logger.error("Error creating rental: {}", createRentalDto, e);
-            throw new RuntimeException("An unexpected error occurred while creating the rental", e);
-        }
+    public DeferredResult<ResponseEntity<MessageRecord>> createRental(@Valid @ModelAttribute CreateRentalDto createRentalDto) {
+        // The picture is stored and the rental saved on an upload thread; the server thread is released meanwhile.
+        DeferredResult<ResponseEntity<MessageRecord>> result = new DeferredResult<>();
+        CompletableFuture<Rental> upload = uploadExecutor.submit(() -> rentalService.addRental(createRentalDto));
+        // A request that timed out or failed has already been answered, so its rental must not be created afterwards.
+        result.onTimeout(() -> upload.cancel(false));
+        result.onError(error -> upload.cancel(false));
+        upload.whenComplete((rental, error) -> {
+            if (error == null) {
+                logger.info("Created new rental: {}", createRentalDto);
+                result.setResult(ResponseEntity.status(HttpStatus.OK).body(new MessageRecord(RENTAL_CREATED)));
+            } else if (!(error instanceof CancellationException)) {
+                result.setErrorResult(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+        });
+        return result;
     }
 
     @Operation(summary = "Update a rental", description = "Updates an existing rental by its ID")
@@ -125,14 +257,25 @@ public class RentalsController {
     })
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<MessageRecord> updateRental(@PathVariable Long id, @Valid @ModelAttribute UpdateRentalDto updateRentalDto) {
-        try {
-            rentalService.updateRental(updateRentalDto, id);
-            logger.info("Updated rental with id: {}", id);
-            return ResponseEntity.ok(new MessageRecord(RENTAL_UPDATED));
-        } catch (Exception e) {
-            logger.error("Error updating rental with id: {}", id, e);
-            throw new RuntimeException("An unexpected error occurred while updating the rental", e);
-        }
+        rentalService.updateRental(updateRentalDto, id);
+        logger.info("Updated rental with id: {}", id);
+        return ResponseEntity.ok(new MessageRecord(RENTAL_UPDATED));
+    }
+
+    @Operation(summary = "Delete a rental", description = "Deletes a rental owned by the current user, together with its messages")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rental deleted successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = MessageRecord.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Rental owned by another user"),
+            @ApiResponse(responseCode = "404", description = "Rental not found")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<MessageRecord> deleteRental(@PathVariable Long id) {
+        rentalService.deleteRental(id);
+        logger.info("Deleted rental with id: {}", id);
+        return ResponseEntity.ok(new MessageRecord(RENTAL_DELETED));
     }
 
     @Hidden
@@ -140,17 +283,18 @@ public class RentalsController {
     public ResponseEntity<Resource> serveFile(@PathVariable String filename) {
         try {
             Path file = Paths.get(uploadDir).resolve(filename);
-            Resource resource = new UrlResource(file.toUri());
+            CachedImage image = imageCache.get(file);
+            Resource resource = image != null ? image : new UrlResource(file.toUri());
 
             if (resource.exists() || resource.isReadable()) {
                 return ResponseEntity.ok()
                         .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
                         .body(resource);
             } else {
-                throw new RuntimeException("Could not read the file!");
+                throw new ResourceNotFoundException("File not found: " + filename);
             }
         } catch (MalformedURLException e) {
-            throw new RuntimeException("Error: " + e.getMessage());
+            throw new InvalidRequestException("Invalid file name: " + filename);
         }
     }
 }
\ No newline at end of file
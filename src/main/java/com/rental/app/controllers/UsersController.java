@@ -1,7 +1,12 @@
 package com.rental.app.controllers;
 
+import com.rental.app.dtos.RentalPageRecord;
 import com.rental.app.entities.User;
+import com.rental.app.services.ExportService;
+import com.rental.app.services.RentalService;
 import com.rental.app.services.UserInfoService;
+import com.rental.app.utils.ContentCodings;
+import com.rental.app.utils.ExportCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -9,12 +14,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
 /**
  * Controller responsible for handling user-related operations.
  * This controller manages the retrieval of user information.
@@ -30,9 +42,13 @@ public class UsersController {
     private static final Logger logger = LoggerFactory.getLogger(UsersController.class);
 
     private final UserInfoService userService;
+    private final RentalService rentalService;
+    private final ExportService exportService;
 
-    public UsersController(UserInfoService userService) {
+    public UsersController(UserInfoService userService, RentalService rentalService, ExportService exportService) {
         this.userService = userService;
+        this.rentalService = rentalService;
+        this.exportService = exportService;
     }
 
     @Operation(summary = "Get user by ID", description = "Retrieves a user's details by their ID")
@@ -46,13 +62,53 @@ public class UsersController {
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
         logger.info("Attempting to retrieve user with ID: {}", id);
-        try {
-            User user = userService.getUserById(id);
-            logger.info("Successfully retrieved user with ID: {}", id);
-            return ResponseEntity.ok(user);
-        } catch (Exception e) {
-            logger.error("Unexpected error occurred while retrieving user with ID: {}", id, e);
-            throw new RuntimeException("An unexpected error occurred while retrieving the user", e);
+        User user = userService.getUserById(id);
+        logger.info("Successfully retrieved user with ID: {}", id);
+        return ResponseEntity.ok(user);
+    }
+
+    @Operation(summary = "Get a user's rentals", description = "Retrieves the rentals owned by a user, one page at a time")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the rentals",
+                     content = @Content(mediaType = "application/json",
+                                        schema = @Schema(implementation = RentalPageRecord.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping("/{id}/rentals")
+    public ResponseEntity<RentalPageRecord> getUserRentals(@PathVariable Long id,
+                                                           @RequestParam(required = false) Long after,
+                                                           @RequestParam(defaultValue = "50") int limit) {
+        RentalPageRecord page = rentalService.getRentalsByOwner(id, after, limit);
+        logger.info("Retrieved {} rentals of user with ID: {}", page.rentals().size(), id);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "Export the current user's data",
+               description = "Streams the rentals of the current user and the messages on them as NDJSON, each line "
+                       + "with the cursor to resume after it. Compressed with gzip when the client accepts it.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed",
+                     content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping(value = "/me/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportCurrentUser(@RequestParam(required = false) String cursor,
+                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                  HttpServletResponse response) throws IOException {
+        ExportCursor exportCursor = ExportCursor.decode(cursor);
+        boolean gzip = ContentCodings.acceptsGzip(acceptEncoding);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        // Written on the server thread rather than asynchronously: a large export outlives the async request timeout.
+        OutputStream output = response.getOutputStream();
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            output = new GZIPOutputStream(output, 8192);
+        }
+        exportService.exportCurrentUser(exportCursor, output);
+        if (output instanceof GZIPOutputStream gzipOutput) {
+            gzipOutput.finish();
         }
     }
 }
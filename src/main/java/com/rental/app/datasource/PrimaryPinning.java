@@ -0,0 +1,78 @@
+package com.rental.app.datasource;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks callers that recently wrote to the primary so their reads are not sent to a lagging replica.
+ * The current request is pinned until it completes, and the authenticated user stays pinned for a
+ * configurable duration after their last write.
+ */
+public class PrimaryPinning {
+
+    private static final String REQUEST_ATTRIBUTE = PrimaryPinning.class.getName() + ".PINNED";
+
+    private final long pinNanos;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public PrimaryPinning(Duration pinAfterWrite) {
+        this.pinNanos = pinAfterWrite.toNanos();
+    }
+
+    /**
+     * Pins the current request and the authenticated user, if any, to the primary.
+     */
+    public void pinCurrentCaller() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(REQUEST_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+        String user = currentUser();
+        if (user != null && pinNanos > 0) {
+            pinnedUntil.put(user, System.nanoTime() + pinNanos);
+        }
+    }
+
+    /**
+     * Returns whether reads of the current caller must go to the primary.
+     */
+    public boolean isCurrentCallerPinned() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        pinnedUntil.remove(user, until);
+        return false;
+    }
+
+    /**
+     * Drops expired pins of users that did not read again after their pin ran out.
+     */
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        pinnedUntil.entrySet().removeIf(entry -> now - entry.getValue() >= 0);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
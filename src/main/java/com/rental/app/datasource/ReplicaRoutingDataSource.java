@@ -0,0 +1,126 @@
+package com.rental.app.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data source for read-only work that spreads connections over the healthy replicas in round-robin order.
+ * Falls back to the primary when no replica is healthy or when the caller is pinned after a write.
+ * Replicas are checked on a thread of their own, as getting a connection from a replica that is down blocks
+ * for the connection timeout of its pool, which would otherwise hold up the other scheduled tasks.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final PrimaryPinning primaryPinning;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, PrimaryPinning primaryPinning,
+                                    Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.primaryPinning = primaryPinning;
+        executor.scheduleWithFixedDelay(this::checkHealthSafely, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return select().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return select().getConnection(username, password);
+    }
+
+    private void checkHealthSafely() {
+        try {
+            checkHealth();
+        } catch (RuntimeException e) {
+            logger.error("Read replica health check failed", e);
+        }
+    }
+
+    /**
+     * Validates a connection of every replica and updates its health flag.
+     */
+    public void checkHealth() {
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                logger.warn("Read replica {} is now {}", i, healthy ? "healthy" : "unhealthy");
+            }
+            replica.healthy = healthy;
+        }
+        primaryPinning.purgeExpired();
+    }
+
+    /**
+     * Returns the number of replicas currently considered healthy.
+     */
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private DataSource select() {
+        if (primaryPinning.isCurrentCallerPinned()) {
+            return primary;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.dataSource;
+            }
+        }
+        return primary;
+    }
+
+    private static final class Replica {
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.rental.app.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Primary data source that pins the caller to the primary whenever a read-write transaction
+ * obtains a connection from it.
+ */
+public class WriteTrackingDataSource extends DelegatingDataSource {
+
+    private final PrimaryPinning primaryPinning;
+
+    public WriteTrackingDataSource(DataSource primary, PrimaryPinning primaryPinning) {
+        super(primary);
+        this.primaryPinning = primaryPinning;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        trackWrite();
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        trackWrite();
+        return super.getConnection(username, password);
+    }
+
+    private void trackWrite() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryPinning.pinCurrentCaller();
+        }
+    }
+}
@@ -1,13 +1,23 @@
 package com.rental.app.dtos;
 
 import lombok.Data;
+import lombok.ToString;
 import org.springframework.web.multipart.MultipartFile;
 
 @Data
+@ToString(onlyExplicitlyIncluded = true)
 public class CreateRentalDto {
+    @ToString.Include
     private String name;
+    @ToString.Include
     private String surface;
+    @ToString.Include
     private String price;
     private MultipartFile picture;
     private String description;
+
+    @ToString.Include(name = "picture")
+    private String pictureSummary() {
+        return picture == null ? null : picture.getOriginalFilename() + " (" + picture.getSize() + " bytes)";
+    }
 }
@@ -0,0 +1,7 @@
+package com.rental.app.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ExportLineRecord(String type, Object data, String cursor) {
+}
@@ -0,0 +1,8 @@
+package com.rental.app.dtos;
+
+import com.rental.app.entities.Rental;
+
+import java.util.List;
+
+public record FilteredRentalsRecord(List<Rental> rentals, int total) {
+}
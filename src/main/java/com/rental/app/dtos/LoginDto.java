@@ -1,10 +1,12 @@
 package com.rental.app.dtos;
 
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 public class LoginDto {
     private String login;
+    @ToString.Exclude
     private String password;
 
     public LoginDto(String email, String password) {
@@ -1,9 +1,11 @@
 package com.rental.app.dtos;
 
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 public class MessageDto {
+    @ToString.Exclude
     private String message;
     private Long rental_id;
     private Long user_id;
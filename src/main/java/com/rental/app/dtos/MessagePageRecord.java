@@ -0,0 +1,6 @@
+package com.rental.app.dtos;
+
+import java.util.List;
+
+public record MessagePageRecord(List<StoredMessageRecord> messages, Long next) {
+}
@@ -1,11 +1,13 @@
 package com.rental.app.dtos;
 
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 public class RegisterDto {
 
     private String name;
     private String email;
+    @ToString.Exclude
     private String password;
 }
@@ -0,0 +1,12 @@
+package com.rental.app.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.rental.app.entities.Rental;
+
+import java.util.List;
+
+public record RentalChangesRecord(List<Rental> rentals,
+                                  List<Long> deleted,
+                                  String cursor,
+                                  @JsonProperty("has_more") boolean hasMore) {
+}
@@ -0,0 +1,18 @@
+package com.rental.app.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+public record RentalStatsRecord(long count,
+                                DistributionRecord price,
+                                @JsonProperty("price_per_square_meter") DistributionRecord pricePerSquareMeter) {
+
+    public record DistributionRecord(long count, Double min, Double max, Double mean,
+                                     Map<String, Double> percentiles, List<BucketRecord> histogram) {
+    }
+
+    public record BucketRecord(Double from, Double to, long count) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.rental.app.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+public record StoredMessageRecord(Long id,
+                                  @JsonProperty("rental_id") Long rentalId,
+                                  @JsonProperty("user_id") Long userId,
+                                  String message,
+                                  @JsonProperty("created_at") LocalDateTime createdAt,
+                                  @JsonProperty("updated_at") LocalDateTime updatedAt) {
+}
@@ -1,11 +1,13 @@
 package com.rental.app.dtos;
 
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 public class UpdateRentalDto {
     private String name;
     private String surface;
     private String price;
+    @ToString.Exclude
     private String description;
 }
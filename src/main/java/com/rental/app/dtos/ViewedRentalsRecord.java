@@ -0,0 +1,11 @@
+package com.rental.app.dtos;
+
+import com.rental.app.entities.Rental;
+
+import java.util.List;
+
+public record ViewedRentalsRecord(List<ViewedRental> rentals) {
+
+    public record ViewedRental(Rental rental, long views) {
+    }
+}
@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "MESSAGES")
+@Table(name = "MESSAGES", indexes = {
+        @Index(name = "idx_messages_rental_id_id", columnList = "rental_id, id")
+})
 public class Message {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -7,6 +7,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,8 +19,12 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "RENTALS")
+@Table(name = "RENTALS", indexes = {
+        @Index(name = "idx_rentals_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_rentals_owner_id_id", columnList = "owner_id, id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "rentals")
 public class Rental {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
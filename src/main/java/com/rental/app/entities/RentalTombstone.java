@@ -0,0 +1,31 @@
+package com.rental.app.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "RENTAL_TOMBSTONES", indexes = @Index(name = "idx_rental_tombstones_deleted_at_id", columnList = "deleted_at, id"))
+public class RentalTombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rental_id", nullable = false)
+    private Long rentalId;
+
+    @CreationTimestamp
+    @Column(name = "deleted_at", updatable = false)
+    private LocalDateTime deletedAt;
+
+    public RentalTombstone(Long rentalId) {
+        this.rentalId = rentalId;
+    }
+}
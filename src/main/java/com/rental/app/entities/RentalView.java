@@ -0,0 +1,20 @@
+package com.rental.app.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "RENTAL_VIEWS")
+public class RentalView {
+    @Id
+    @Column(name = "rental_id")
+    private Long rentalId;
+
+    @Column(nullable = false)
+    private long views;
+}
@@ -0,0 +1,25 @@
+package com.rental.app.events;
+
+import com.rental.app.entities.Rental;
+
+/**
+ * Published by {@link com.rental.app.services.RentalService} when a rental is created, updated or deleted.
+ * Listeners receive it once the transaction has committed.
+ *
+ * @param rentalId The id of the changed rental.
+ * @param rental The rental as saved, or null if it was deleted.
+ */
+public record RentalChangedEvent(Long rentalId, Rental rental) {
+
+    public static RentalChangedEvent saved(Rental rental) {
+        return new RentalChangedEvent(rental.getId(), rental);
+    }
+
+    public static RentalChangedEvent deleted(Long rentalId) {
+        return new RentalChangedEvent(rentalId, null);
+    }
+
+    public boolean isDeleted() {
+        return rental == null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.rental.app.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base class of the exceptions the API reports to clients with a specific status code.
+ * Subclasses describing expected outcomes, such as a missing resource, skip stack trace capture:
+ * they are raised on ordinary requests and their origin is clear from the message.
+ */
+public abstract class ApiException extends RuntimeException {
+
+    protected ApiException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Returns the HTTP status the exception is mapped to.
+     */
+    public abstract HttpStatus getStatus();
+}
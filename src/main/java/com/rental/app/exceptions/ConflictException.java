@@ -0,0 +1,19 @@
+package com.rental.app.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a request conflicts with the current state of a resource, such as a duplicate email.
+ * Mapped to 409 Conflict.
+ */
+public class ConflictException extends ApiException {
+
+    public ConflictException(String message) {
+        super(message, false);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+}
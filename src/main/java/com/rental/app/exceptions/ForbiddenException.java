@@ -0,0 +1,19 @@
+package com.rental.app.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when the authenticated user is not allowed to act on a resource, such as deleting another owner's rental.
+ * Mapped to 403 Forbidden.
+ */
+public class ForbiddenException extends ApiException {
+
+    public ForbiddenException(String message) {
+        super(message, false);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.FORBIDDEN;
+    }
+}
@@ -0,0 +1,47 @@
+package com.rental.app.exceptions;
+
+import com.rental.app.dtos.MessageRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+/**
+ * Maps exceptions thrown by the controllers to HTTP responses.
+ * Expected outcomes are answered with their status code and logged at debug level without a stack trace;
+ * only unexpected exceptions are logged as errors.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    private static final String UNEXPECTED_ERROR = "An unexpected error occurred";
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<MessageRecord> handleApiException(ApiException e) {
+        logger.debug("Request failed with status {}: {}", e.getStatus().value(), e.getMessage());
+        return ResponseEntity.status(e.getStatus()).body(new MessageRecord(e.getMessage()));
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<MessageRecord> handleAuthenticationException(AuthenticationException e) {
+        logger.debug("Authentication failed: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageRecord("Authentication failed"));
+    }
+
+    @ExceptionHandler(NumberFormatException.class)
+    public ResponseEntity<MessageRecord> handleNumberFormatException(NumberFormatException e) {
+        logger.debug("Invalid number in request: {}", e.getMessage());
+        return ResponseEntity.badRequest().body(new MessageRecord("Invalid number"));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<MessageRecord> handleUnexpectedException(Exception e) {
+        logger.error("Unexpected error while handling request", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new MessageRecord(UNEXPECTED_ERROR));
+    }
+}
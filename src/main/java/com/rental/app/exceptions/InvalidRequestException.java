@@ -0,0 +1,18 @@
+package com.rental.app.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a request is well-formed but its content is invalid. Mapped to 400 Bad Request.
+ */
+public class InvalidRequestException extends ApiException {
+
+    public InvalidRequestException(String message) {
+        super(message, false);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+}
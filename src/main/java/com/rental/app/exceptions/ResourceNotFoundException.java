@@ -0,0 +1,18 @@
+package com.rental.app.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a requested resource does not exist. Mapped to 404 Not Found.
+ */
+public class ResourceNotFoundException extends ApiException {
+
+    public ResourceNotFoundException(String message) {
+        super(message, false);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+}
@@ -0,0 +1,19 @@
+package com.rental.app.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when the server cannot take on more work of a kind right now, such as when the upload queue is full.
+ * Mapped to 503 Service Unavailable.
+ */
+public class ServiceUnavailableException extends ApiException {
+
+    public ServiceUnavailableException(String message) {
+        super(message, false);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
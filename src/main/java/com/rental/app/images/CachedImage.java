@@ -0,0 +1,76 @@
+package com.rental.app.images;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A rental picture held in the {@link ImageCache}.
+ * The bytes live in a read-only direct buffer outside the Java heap; {@link ImageHttpMessageConverter} writes them to
+ * the socket from there. Reading it as a stream, which range requests do, copies the bytes through the heap.
+ */
+public class CachedImage extends AbstractResource {
+
+    private final String filename;
+    private final ByteBuffer content;
+
+    CachedImage(String filename, ByteBuffer content) {
+        this.filename = filename;
+        this.content = content.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a view of the bytes with its own position, so concurrent responses do not interfere.
+     */
+    public ByteBuffer content() {
+        return content.duplicate();
+    }
+
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+
+    @Override
+    public long contentLength() {
+        return content.remaining();
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return "cached image [" + filename + "]";
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        ByteBuffer buffer = content();
+        return new InputStream() {
+
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(length, buffer.remaining());
+                buffer.get(bytes, offset, count);
+                return count;
+            }
+
+            @Override
+            public int available() {
+                return buffer.remaining();
+            }
+        };
+    }
+}
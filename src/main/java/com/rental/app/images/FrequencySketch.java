@@ -0,0 +1,78 @@
+package com.rental.app.images;
+
+/**
+ * Approximate access frequency of keys, as a count-min sketch of 4-bit counters in the style of TinyLFU.
+ * Each key is counted in four counters packed into the same table of longs; its frequency is the smallest of them,
+ * capped at 15. After ten increments per table slot, every counter is halved, so the sketch forgets old popularity
+ * and follows the recent access pattern. Memory is fixed at construction. Not thread-safe.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param expectedKeys The number of distinct keys expected to be popular at the same time.
+     */
+    FrequencySketch(int expectedKeys) {
+        int length = Integer.highestOneBit(Math.max(expectedKeys, 64) - 1) << 1;
+        this.table = new long[length];
+        this.mask = length - 1;
+        this.sampleSize = 10 * length;
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = MAX_COUNT;
+        for (int depth = 0; depth < 4; depth++) {
+            int offset = (start + depth) << 2;
+            int count = (int) ((table[indexOf(hash, depth)] >>> offset) & 0xF);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int depth = 0; depth < 4; depth++) {
+            int index = indexOf(hash, depth);
+            int offset = (start + depth) << 2;
+            if (((table[index] >>> offset) & 0xF) < MAX_COUNT) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
@@ -0,0 +1,170 @@
+package com.rental.app.images;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the bytes of frequently served rental pictures in direct buffers outside the Java heap.
+ * The heap only holds a small entry per picture, so garbage collection does not grow with the cached bytes.
+ * Entries are evicted least recently used first, but a picture is only admitted in place of the pictures it would
+ * evict if it was requested more often than each of them recently, as counted by a {@link FrequencySketch}.
+ * A crawl requesting every picture once therefore does not push out the popular ones. The cached bytes never exceed
+ * the configured size; larger pictures are always read from disk. Stored pictures get a new name and are never
+ * modified, so entries are not invalidated.
+ */
+@Component
+public class ImageCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageCache.class);
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final FrequencySketch sketch;
+    private final LinkedHashMap<Path, CachedImage> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long residentBytes;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ImageCache(@Value("${app.images.cache.max-size:64MB}") DataSize maxSize,
+                      @Value("${app.images.cache.max-entry-size:2MB}") DataSize maxEntrySize,
+                      MeterRegistry meterRegistry) {
+        this.maxBytes = maxSize.toBytes();
+        this.maxEntryBytes = Math.min(maxEntrySize.toBytes(), maxBytes);
+        // Sized for pictures of about 16 KB, so smaller pictures share counters sooner rather than wasting memory.
+        this.sketch = new FrequencySketch((int) Math.min(maxBytes / DataSize.ofKilobytes(16).toBytes(), 1 << 20));
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        Gauge.builder("app.images.cache.resident", this, ImageCache::residentBytes)
+                .description("Bytes of rental pictures held off-heap by the image cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("app.images.cache.entries", this, ImageCache::size)
+                .description("Rental pictures held by the image cache")
+                .register(meterRegistry);
+        Gauge.builder("app.images.cache.hit.ratio", this, ImageCache::hitRatio)
+                .description("Share of rental picture requests answered from the image cache")
+                .register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("app.images.cache.requests")
+                .description("Rental picture requests by cache outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a picture from the cache, reading it into the cache if it is admitted.
+     * Returns null when the picture is not cached and stays on disk: when it does not exist, is too large, is not
+     * requested often enough to replace cached pictures, or cannot be read.
+     *
+     * @param file The picture file.
+     */
+    public CachedImage get(Path file) {
+        Path key = file.toAbsolutePath().normalize();
+        CachedImage image;
+        synchronized (this) {
+            sketch.increment(key);
+            image = entries.get(key);
+        }
+        if (image != null) {
+            hits.increment();
+            return image;
+        }
+        misses.increment();
+        try {
+            if (!Files.isRegularFile(key)) {
+                return null;
+            }
+            long size = Files.size(key);
+            if (size > maxEntryBytes || !admit(key, size, false)) {
+                return null;
+            }
+            image = new CachedImage(key.getFileName().toString(), read(key, size));
+        } catch (IOException e) {
+            logger.warn("Failed to cache {}", key, e);
+            return null;
+        }
+        // Admission is checked again now that the bytes are read: other pictures may have been cached meanwhile.
+        admit(key, image.contentLength(), true);
+        synchronized (this) {
+            if (!entries.containsKey(key) && residentBytes + image.contentLength() <= maxBytes) {
+                entries.put(key, image);
+                residentBytes += image.contentLength();
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Decides whether a picture may be cached, evicting the pictures it replaces if asked to.
+     */
+    private synchronized boolean admit(Path key, long size, boolean evict) {
+        long needed = residentBytes + size - maxBytes;
+        if (needed <= 0) {
+            return true;
+        }
+        int frequency = sketch.frequency(key);
+        List<Path> victims = new ArrayList<>();
+        long freed = 0;
+        for (Iterator<Map.Entry<Path, CachedImage>> iterator = entries.entrySet().iterator();
+             iterator.hasNext() && freed < needed; ) {
+            Map.Entry<Path, CachedImage> victim = iterator.next();
+            if (sketch.frequency(victim.getKey()) >= frequency) {
+                return false;
+            }
+            victims.add(victim.getKey());
+            freed += victim.getValue().contentLength();
+        }
+        if (evict) {
+            for (Path victim : victims) {
+                residentBytes -= entries.remove(victim).contentLength();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a file straight into a direct buffer; the bytes are not copied through the heap.
+     */
+    private static ByteBuffer read(Path file, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read until full or until the end of a file that shrank meanwhile.
+            }
+        }
+        return buffer.flip();
+    }
+
+    public synchronized long residentBytes() {
+        return residentBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public double hitRatio() {
+        double requests = hits.count() + misses.count();
+        return requests == 0 ? Double.NaN : hits.count() / requests;
+    }
+}
@@ -0,0 +1,78 @@
+package com.rental.app.images;
+
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+/**
+ * Writes {@link CachedImage} bodies from their direct buffer.
+ * On Tomcat, the headers are committed through the response wrappers first (Spring Security adds its headers on
+ * commit), then the buffer is handed to Tomcat's own output stream, which writes buffers larger than its socket buffer
+ * straight to the socket channel. The bytes are then never copied into the heap. Elsewhere the buffer is copied to the
+ * output stream. Registered ahead of the default converters, so it is picked before the one for other resources.
+ */
+@Component
+public class ImageHttpMessageConverter extends AbstractHttpMessageConverter<CachedImage> {
+
+    public ImageHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CachedImage.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected CachedImage readInternal(Class<? extends CachedImage> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Cached images are not read from requests", inputMessage);
+    }
+
+    @Override
+    protected MediaType getDefaultContentType(CachedImage image) {
+        return MediaTypeFactory.getMediaType(image).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    @Override
+    protected Long getContentLength(CachedImage image, MediaType contentType) {
+        return image.contentLength();
+    }
+
+    @Override
+    protected void writeInternal(CachedImage image, HttpOutputMessage outputMessage) throws IOException {
+        ByteBuffer content = image.content();
+        if (outputMessage instanceof ServletServerHttpResponse servletServerResponse) {
+            // Writes the headers to the servlet response, then commits them.
+            servletServerResponse.getBody();
+            HttpServletResponse response = servletServerResponse.getServletResponse();
+            response.flushBuffer();
+            ServletResponse nativeResponse = response;
+            while (nativeResponse instanceof ServletResponseWrapper wrapper) {
+                nativeResponse = wrapper.getResponse();
+            }
+            if (nativeResponse.getOutputStream() instanceof CoyoteOutputStream outputStream) {
+                outputStream.write(content);
+                return;
+            }
+        }
+        Channels.newChannel(outputMessage.getBody()).write(content);
+    }
+}
@@ -0,0 +1,136 @@
+package com.rental.app.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.app.dtos.MessageRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limits the requests in flight per {@link EndpointGroup} and rejects the excess at once with 503 Service Unavailable.
+ * Each group has its own {@link GradientLimiter}, so when the database slows down the limits shrink and requests
+ * are turned away instead of queueing on server threads, and a burst of logins or uploads only ever takes the
+ * threads of its own group. Requests outside the groups are not limited.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Map<EndpointGroup, GradientLimiter> limiters;
+    private final Map<EndpointGroup, Counter> rejections = new EnumMap<>(EndpointGroup.class);
+    private final byte[] rejectionBody;
+
+    public ConcurrencyLimitFilter(Map<EndpointGroup, GradientLimiter> limiters, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) throws IOException {
+        this.limiters = new EnumMap<>(limiters);
+        this.rejectionBody = objectMapper.writeValueAsBytes(new MessageRecord("Server busy, please retry"));
+        this.limiters.forEach((group, limiter) -> {
+            Gauge.builder("app.concurrency.limit", limiter, GradientLimiter::getLimit)
+                    .description("Current concurrency limit of the endpoint group")
+                    .tag("group", group.key())
+                    .register(meterRegistry);
+            Gauge.builder("app.concurrency.in.flight", limiter, GradientLimiter::getInFlight)
+                    .description("Requests of the endpoint group being processed")
+                    .tag("group", group.key())
+                    .register(meterRegistry);
+            rejections.put(group, Counter.builder("app.concurrency.rejected")
+                    .description("Requests rejected because their endpoint group was at its concurrency limit")
+                    .tag("group", group.key())
+                    .register(meterRegistry));
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        EndpointGroup group = EndpointGroup.of(request.getMethod(), path);
+        GradientLimiter limiter = group != null ? limiters.get(group) : null;
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            rejections.get(group).increment();
+            logger.debug("Rejected {} {}: {} limit of {} reached", request.getMethod(), path, group.key(), limiter.getLimit());
+            reject(response);
+            return;
+        }
+        Permit permit = new Permit(limiter);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(permit);
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(rejectionBody.length);
+        response.getOutputStream().write(rejectionBody);
+    }
+
+    /**
+     * A permit held by a request, released once when the request completes, including asynchronously.
+     */
+    private static final class Permit implements AsyncListener {
+
+        private final GradientLimiter limiter;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(GradientLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Still the same request; the permit stays with it.
+        }
+    }
+}
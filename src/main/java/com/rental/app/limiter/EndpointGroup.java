@@ -0,0 +1,42 @@
+package com.rental.app.limiter;
+
+/**
+ * Groups of endpoints that get their own concurrency limit, so that a surge on one cannot take the threads of another.
+ */
+public enum EndpointGroup {
+    AUTH,
+    RENTAL_READ,
+    RENTAL_WRITE,
+    MESSAGES,
+    EXPORT;
+
+    /**
+     * Returns the group of a request, or null for requests that are not limited (actuator, API docs, other user
+     * endpoints).
+     *
+     * @param method The HTTP method.
+     * @param path The request path, without the context path.
+     */
+    public static EndpointGroup of(String method, String path) {
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        if (path.startsWith("/api/messages")) {
+            return MESSAGES;
+        }
+        if (path.equals("/api/user/me/export")) {
+            return EXPORT;
+        }
+        if (path.startsWith("/api/rentals")) {
+            return method.equals("GET") || method.equals("HEAD") ? RENTAL_READ : RENTAL_WRITE;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the name of the group in properties and metric tags, such as {@code rental-read}.
+     */
+    public String key() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,90 @@
+package com.rental.app.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to the observed latency.
+ * Two moving averages of the request latency are kept: a short one following the current load and a long one
+ * standing for the latency without queueing. While the short average stays close to the long one the limit grows
+ * by a queue allowance of its square root; once it rises above, the limit shrinks in proportion, down to half per
+ * update. Updates are smoothed, skipped while less than half of the limit is in use, and bounded by the minimum and
+ * maximum limits. The long average follows a lasting latency change within a few hundred requests.
+ */
+public class GradientLimiter {
+
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 1.0 / 600;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private double limitEstimate;
+    private double shortRtt;
+    private double longRtt;
+
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limitEstimate = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) limitEstimate;
+    }
+
+    /**
+     * Takes a permit if fewer requests than the current limit are in flight.
+     *
+     * @return Whether the request may proceed; if so, {@link #release(long)} must be called once it completes.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a permit and updates the limit with the latency of the request that held it.
+     *
+     * @param latencyNanos The time the request took.
+     */
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        update(latencyNanos, current);
+    }
+
+    private synchronized void update(long latencyNanos, int current) {
+        if (shortRtt == 0) {
+            shortRtt = latencyNanos;
+            longRtt = latencyNanos;
+        } else {
+            shortRtt += (latencyNanos - shortRtt) * SHORT_WEIGHT;
+            longRtt += (latencyNanos - longRtt) * LONG_WEIGHT;
+        }
+        // After a lasting slowdown is over, bring the no-load estimate back down quickly.
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        if (current < limitEstimate / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double target = limitEstimate * gradient + Math.sqrt(limitEstimate);
+        limitEstimate = Math.max(minLimit, Math.min(maxLimit, limitEstimate * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) limitEstimate;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,50 @@
+package com.rental.app.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback turbo filter keeping on average one in {@code rate} events of the loggers under
+ * {@code loggerPrefix} whose level is at most {@code level}. More severe events always pass.
+ * Runs before the logging event is created, so dropped events cost neither formatting nor a queue slot.
+ *
+ * <pre>
+ * &lt;turboFilter class="com.rental.app.logging.SamplingTurboFilter"&gt;
+ *     &lt;loggerPrefix&gt;com.rental.app.controllers&lt;/loggerPrefix&gt;
+ *     &lt;level&gt;INFO&lt;/level&gt;
+ *     &lt;rate&gt;10&lt;/rate&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "";
+    private Level level = Level.INFO;
+    private int rate = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level eventLevel, String format, Object[] params, Throwable t) {
+        if (rate <= 1 || eventLevel == null || eventLevel.toInt() > level.toInt()
+                || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+}
@@ -1,9 +1,14 @@
 package com.rental.app.repositories;
 
+import com.rental.app.dtos.StoredMessageRecord;
 import com.rental.app.entities.Message;
 import com.rental.app.entities.Rental;
 import com.rental.app.entities.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +18,31 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     List<Message> findByRental(Rental rental);
 
     List<Message> findByUser(User user);
+
+    // Ordered by rental first, although there is only one, so the (rental_id, id) index is read in order without a sort.
+    @Query("SELECT new com.rental.app.dtos.StoredMessageRecord(m.id, m.rental.id, m.user.id, m.message, m.createdAt, m.updatedAt) "
+            + "FROM Message m WHERE m.rental.id = :rentalId AND m.id > :afterId ORDER BY m.rental.id, m.id")
+    List<StoredMessageRecord> findByRentalAfter(@Param("rentalId") long rentalId, @Param("afterId") long afterId,
+                                                Limit limit);
+
+    @Query("SELECT new com.rental.app.dtos.StoredMessageRecord(m.id, m.rental.id, m.user.id, m.message, m.createdAt, m.updatedAt) "
+            + "FROM Message m WHERE m.rental.id = :rentalId AND m.id > :afterId AND m.id < :beforeId "
+            + "ORDER BY m.rental.id DESC, m.id DESC")
+    List<StoredMessageRecord> findByRentalBetweenDesc(@Param("rentalId") long rentalId, @Param("afterId") long afterId,
+                                                      @Param("beforeId") long beforeId, Limit limit);
+
+    @Query("SELECT new com.rental.app.dtos.StoredMessageRecord(m.id, m.rental.id, m.user.id, m.message, m.createdAt, m.updatedAt) "
+            + "FROM Message m WHERE m.id > :afterId ORDER BY m.id")
+    List<StoredMessageRecord> findAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("SELECT MIN(m.id) FROM Message m")
+    Long findMinId();
+
+    @Modifying
+    @Query("DELETE FROM Message m WHERE m.id > :afterId AND m.id <= :lastId")
+    int deleteByIdRange(@Param("afterId") long afterId, @Param("lastId") long lastId);
+
+    @Modifying
+    @Query("DELETE FROM Message m WHERE m.rental.id = :rentalId")
+    int deleteByRentalId(@Param("rentalId") Long rentalId);
 }
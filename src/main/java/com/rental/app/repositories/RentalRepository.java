@@ -1,9 +1,27 @@
 package com.rental.app.repositories;
 
 import com.rental.app.entities.Rental;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface RentalRepository extends JpaRepository<Rental, Long> {
+public interface RentalRepository extends JpaRepository<Rental, Long>, RentalRepositoryCustom {
+
+    @Query("SELECT r FROM Rental r WHERE r.updatedAt >= :updatedAt AND (r.updatedAt > :updatedAt OR r.id > :id) "
+            + "AND r.updatedAt < :until ORDER BY r.updatedAt, r.id")
+    List<Rental> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") long id,
+                                  @Param("until") LocalDateTime until, Limit limit);
+
+    @Query("SELECT r FROM Rental r WHERE r.owner.id = :ownerId AND r.id > :afterId ORDER BY r.id")
+    List<Rental> findByOwnerAfter(@Param("ownerId") Long ownerId, @Param("afterId") long afterId, Limit limit);
+
+    @Query("SELECT r.id FROM Rental r WHERE r.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,16 @@
+package com.rental.app.repositories;
+
+import com.rental.app.entities.Rental;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface RentalRepositoryCustom {
+
+    /**
+     * Loads rentals by id in the given order through the multi-load API, so rentals already in the
+     * second-level cache are not queried again. Ids of rentals that no longer exist are skipped.
+     */
+    @Transactional(readOnly = true)
+    List<Rental> findAllByIdInOrder(List<Long> ids);
+}
@@ -0,0 +1,27 @@
+package com.rental.app.repositories;
+
+import com.rental.app.entities.Rental;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+
+public class RentalRepositoryCustomImpl implements RentalRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Rental> findAllByIdInOrder(List<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Rental.class)
+                .multiLoad(ids)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
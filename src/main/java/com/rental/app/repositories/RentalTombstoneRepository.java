@@ -0,0 +1,20 @@
+package com.rental.app.repositories;
+
+import com.rental.app.entities.RentalTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RentalTombstoneRepository extends JpaRepository<RentalTombstone, Long> {
+
+    @Query("SELECT t FROM RentalTombstone t WHERE t.deletedAt >= :deletedAt AND (t.deletedAt > :deletedAt OR t.id > :id) "
+            + "AND t.deletedAt < :until ORDER BY t.deletedAt, t.id")
+    List<RentalTombstone> findDeletedAfter(@Param("deletedAt") LocalDateTime deletedAt, @Param("id") long id,
+                                           @Param("until") LocalDateTime until, Limit limit);
+}
@@ -0,0 +1,16 @@
+package com.rental.app.repositories;
+
+import com.rental.app.entities.RentalView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RentalViewRepository extends JpaRepository<RentalView, Long> {
+
+    @Modifying
+    @Query("DELETE FROM RentalView v WHERE v.rentalId = :rentalId")
+    int deleteByRentalId(@Param("rentalId") Long rentalId);
+}
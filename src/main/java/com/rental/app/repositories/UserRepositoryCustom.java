@@ -0,0 +1,16 @@
+package com.rental.app.repositories;
+
+import com.rental.app.entities.User;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Finds a user by email through the natural-id API, so the lookup is served from the
+     * second-level cache instead of issuing a query when the user is already cached.
+     */
+    @Transactional(readOnly = true)
+    Optional<User> findByEmailNaturalId(String email);
+}
@@ -0,0 +1,108 @@
+package com.rental.app.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.rental.app.dtos.ExportLineRecord;
+import com.rental.app.dtos.StoredMessageRecord;
+import com.rental.app.entities.Rental;
+import com.rental.app.repositories.RentalRepository;
+import com.rental.app.utils.ExportCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Service responsible for exporting the data of a user.
+ * The export is written as NDJSON: each rental of the user, followed by the messages on it, then a final line of
+ * type {@code end}. Every line carries the cursor to resume after it. Rows are read in keyset batches of a bounded
+ * size, each in its own short read-only transaction, and written before the next batch is read, so memory stays the
+ * same whatever the size of the account and a slow client holds a database connection only while a batch is read.
+ * This relies on {@code spring.jpa.open-in-view} being off, as the request would otherwise keep the connection of its
+ * first query until the export is written. Archived messages are exported along with the others.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    @Value("${app.export.batch-size:500}")
+    private int batchSize;
+
+    private final RentalRepository rentalRepository;
+    private final MessageService messageService;
+    private final JwtService jwtService;
+    private final ObjectWriter objectWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    public ExportService(RentalRepository rentalRepository, MessageService messageService, JwtService jwtService,
+                         ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.rentalRepository = rentalRepository;
+        this.messageService = messageService;
+        this.jwtService = jwtService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Writes the rentals of the current user and the messages on them, starting after the given cursor.
+     *
+     * @param cursor The position of the last line the client received, or {@link ExportCursor#INITIAL}.
+     * @param output The stream to write to; it is not closed.
+     * @throws IOException if writing to the client fails.
+     */
+    public void exportCurrentUser(ExportCursor cursor, OutputStream output) throws IOException {
+        Long userId = jwtService.getCurrentUserId();
+        long rentals = 0;
+        long messages = 0;
+        long afterRentalId = cursor.rentalId();
+        // Finish the messages of the rental the client stopped in, unless it was deleted since or is not theirs.
+        if (afterRentalId > 0 && transactionTemplate.execute(status -> rentalRepository.findById(cursor.rentalId())
+                .filter(rental -> rental.getOwner().getId().equals(userId)).isPresent())) {
+            messages += writeMessages(afterRentalId, cursor.messageId(), output);
+        }
+        List<Rental> batch;
+        do {
+            long after = afterRentalId;
+            batch = transactionTemplate.execute(
+                    status -> rentalRepository.findByOwnerAfter(userId, after, Limit.of(batchSize)));
+            for (Rental rental : batch) {
+                afterRentalId = rental.getId();
+                writeLine(output, "rental", rental, new ExportCursor(afterRentalId, 0));
+                rentals++;
+                messages += writeMessages(afterRentalId, 0, output);
+            }
+        } while (batch.size() == batchSize);
+        writeLine(output, "end", null, new ExportCursor(afterRentalId, Long.MAX_VALUE));
+        output.flush();
+        logger.info("Exported {} rentals and {} messages of user with ID: {}", rentals, messages, userId);
+    }
+
+    private long writeMessages(long rentalId, long afterMessageId, OutputStream output) throws IOException {
+        long written = 0;
+        List<StoredMessageRecord> batch;
+        do {
+            batch = messageService.getRentalMessagesAfter(rentalId, afterMessageId, batchSize);
+            for (StoredMessageRecord message : batch) {
+                afterMessageId = message.id();
+                writeLine(output, "message", message, new ExportCursor(rentalId, afterMessageId));
+            }
+            written += batch.size();
+        } while (batch.size() == batchSize);
+        return written;
+    }
+
+    private void writeLine(OutputStream output, String type, Object data, ExportCursor cursor) throws IOException {
+        objectWriter.writeValue(output, new ExportLineRecord(type, data, cursor.encode()));
+        output.write('\n');
+    }
+}
@@ -0,0 +1,109 @@
+package com.rental.app.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.ServletContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Service responsible for storing uploaded files.
+ * This service writes rental pictures to the upload directory and builds the URL they are served from.
+ */
+@Service
+public class FileStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    @Value("${app.upload.dir:${user.home}}")
+    private String uploadDir;
+
+    private final ServletContext servletContext;
+    private final Environment environment;
+    private final Timer uploadTimer;
+    private final DistributionSummary uploadSize;
+
+    public FileStorageService(ServletContext servletContext, Environment environment, MeterRegistry meterRegistry) {
+        this.servletContext = servletContext;
+        this.environment = environment;
+        this.uploadTimer = Timer.builder("app.upload")
+                .description("Time spent storing uploaded rental pictures")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.uploadSize = DistributionSummary.builder("app.upload.size")
+                .description("Size of uploaded rental pictures")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores a file in the server's file system and returns its URL.
+     *
+     * @param file The MultipartFile to be stored.
+     * @return A String representing the URL of the stored file.
+     * @throws RuntimeException If there's an error while storing the file.
+     */
+    public String storeFile(MultipartFile file) {
+        Timer.Sample sample = Timer.start();
+        try {
+            String fileName = StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
+            String fileExtension = StringUtils.getFilenameExtension(fileName);
+            String uniqueFileName = UUID.randomUUID() + "." + fileExtension;
+
+            Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+            Files.createDirectories(uploadPath);
+
+            // Multipart uploads are already on disk in the multipart location; transferTo moves that file into
+            // place when both are on the same file system instead of copying it.
+            Path filePath = uploadPath.resolve(uniqueFileName);
+            file.transferTo(filePath.toFile());
+            uploadSize.record(file.getSize());
+
+            String baseUrl = getBaseUrl();
+            return baseUrl + "/api/rentals/image/" + uniqueFileName;
+        } catch (IOException e) {
+            logger.error("Failed to store file", e);
+            throw new RuntimeException("Failed to store file", e);
+        } finally {
+            sample.stop(uploadTimer);
+        }
+    }
+
+    /**
+     * Generates the base URL for the current server environment.
+     *
+     * This method dynamically constructs the base URL using the server's
+     * configuration. It determines the protocol (http/https), port,
+     * host address, and context path.
+     *
+     * @return A String representing the base URL of the server.
+     */
+    private String getBaseUrl() {
+        String protocol = environment.getProperty("server.ssl.key-store") != null ? "https" : "http";
+        String serverPort = environment.getProperty("server.port", "8080");
+        String contextPath = servletContext.getContextPath();
+
+        return UriComponentsBuilder.newInstance()
+                .scheme(protocol)
+                .host(environment.getProperty("server.address", "localhost"))
+                .port(serverPort)
+                .path(contextPath)
+                .build()
+                .toUriString();
+    }
+}
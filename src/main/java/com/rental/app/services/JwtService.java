@@ -2,9 +2,11 @@ package com.rental.app.services;
 
 import com.rental.app.entities.User;
 import com.rental.app.repositories.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -21,9 +23,11 @@ import java.time.temporal.ChronoUnit;
  * This service handles token generation and user retrieval based on JWT authentication.
  */
 @Service
+@Timed("app.service")
 public class JwtService {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
+    public static final String USER_ID_CLAIM = "uid";
 
     private final JwtEncoder jwtEncoder;
     private final UserRepository userRepository;
@@ -48,13 +52,15 @@ public class JwtService {
     public String generateToken(Authentication authentication) {
         logger.debug("Generating token for user: {}", authentication.getName());
         Instant now = Instant.now();
-        JwtClaimsSet claims = JwtClaimsSet.builder()
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
                 .issuer(jwtIssuer)
                 .issuedAt(now)
                 .expiresAt(now.plus(jwtExpirationHours, ChronoUnit.HOURS))
-                .subject(authentication.getName())
-                .build();
-        String token = this.jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+                .subject(authentication.getName());
+        if (authentication.getPrincipal() instanceof UserInfoDetails userDetails && userDetails.getId() != null) {
+            claims.claim(USER_ID_CLAIM, userDetails.getId());
+        }
+        String token = this.jwtEncoder.encode(JwtEncoderParameters.from(claims.build())).getTokenValue();
         logger.info("Token generated successfully for user: {}", authentication.getName());
         return token;
     }
@@ -63,26 +69,46 @@ public class JwtService {
      * Retrieves the current authenticated user based on the JWT in the SecurityContext.
      *
      * @return The User entity of the currently authenticated user.
-     * @throws RuntimeException if no authentication is found in the SecurityContext.
+     * @throws AuthenticationCredentialsNotFoundException if no JWT authentication is found in the SecurityContext.
      * @throws UsernameNotFoundException if the user corresponding to the JWT subject is not found.
      */
     public User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        if (!(authentication instanceof JwtAuthenticationToken jwtAuthenticationToken)) {
-            logger.error("No JWT authentication found in SecurityContext");
-            throw new RuntimeException("No JWT authentication found");
-        }
-
-        Jwt jwt = (Jwt) jwtAuthenticationToken.getPrincipal();
+        Jwt jwt = getCurrentJwt();
 
         String userEmail = jwt.getSubject();
         logger.debug("Retrieving user for email: {}", userEmail);
 
-        return userRepository.findByEmail(userEmail)
+        return userRepository.findByEmailNaturalId(userEmail)
                 .orElseThrow(() -> {
                     logger.error("User not found for email: {}", userEmail);
                     return new UsernameNotFoundException("User not found for email: " + userEmail);
                 });
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the id of the current authenticated user from the JWT in the SecurityContext,
+     * without loading the user. Tokens issued without the user id claim fall back to a lookup by email.
+     *
+     * @return The id of the currently authenticated user.
+     * @throws AuthenticationCredentialsNotFoundException if no JWT authentication is found in the SecurityContext.
+     * @throws UsernameNotFoundException if the token has no user id claim and its subject is not found.
+     */
+    public Long getCurrentUserId() {
+        Object userId = getCurrentJwt().getClaim(USER_ID_CLAIM);
+        if (userId instanceof Number number) {
+            return number.longValue();
+        }
+        return getCurrentUser().getId();
+    }
+
+    private Jwt getCurrentJwt() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (!(authentication instanceof JwtAuthenticationToken jwtAuthenticationToken)) {
+            logger.error("No JWT authentication found in SecurityContext");
+            throw new AuthenticationCredentialsNotFoundException("No JWT authentication found");
+        }
+
+        return (Jwt) jwtAuthenticationToken.getPrincipal();
+    }
+}
@@ -1,33 +1,51 @@
 package com.rental.app.services;
 
+import com.rental.app.archive.MessageArchive;
+import com.rental.app.dtos.MessagePageRecord;
+import com.rental.app.dtos.StoredMessageRecord;
+import com.rental.app.exceptions.ForbiddenException;
 import com.rental.app.utils.Mapper;
 import com.rental.app.dtos.MessageDto;
 import com.rental.app.entities.Message;
 import com.rental.app.entities.Rental;
 import com.rental.app.entities.User;
+import com.rental.app.exceptions.ResourceNotFoundException;
 import com.rental.app.repositories.MessageRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Service responsible for message-related operations.
- * This service handles the creation and storage of messages in the application.
+ * This service handles the creation and storage of messages in the application, and reads them back from the
+ * database and from the {@link MessageArchive} as if they were all in the database.
  */
 @Service
+@Timed("app.service")
 public class MessageService {
 
     private static final Logger logger = LoggerFactory.getLogger(MessageService.class);
+    private static final int MAX_PAGE_SIZE = 200;
 
     private final MessageRepository messageRepository;
     private final UserInfoService userService;
     private final RentalService rentalService;
+    private final JwtService jwtService;
+    private final MessageArchive messageArchive;
 
-    public MessageService(MessageRepository messageRepository, UserInfoService userService, RentalService rentalService) {
+    public MessageService(MessageRepository messageRepository, UserInfoService userService, RentalService rentalService,
+                          JwtService jwtService, MessageArchive messageArchive) {
         this.messageRepository = messageRepository;
         this.userService = userService;
         this.rentalService = rentalService;
+        this.jwtService = jwtService;
+        this.messageArchive = messageArchive;
     }
 
     /**
@@ -35,14 +53,14 @@ public class MessageService {
      *
      * @param messageDto The DTO containing the message details.
      * @return The created Message entity.
-     * @throws RuntimeException if the user or rental is not found.
+     * @throws ResourceNotFoundException if the user or rental is not found.
      */
     @Transactional
     public Message addMessage(MessageDto messageDto) {
         logger.debug("Adding new message: {}", messageDto);
 
-        User user = getUserForMessage(messageDto.getUser_id());
-        Rental rental = getRentalForMessage(messageDto.getRental_id());
+        User user = userService.getUserById(messageDto.getUser_id());
+        Rental rental = rentalService.getRentalById(messageDto.getRental_id());
 
         Message message = Mapper.mapMessageDtoToMessage(messageDto, user, rental);
         Message savedMessage = messageRepository.save(message);
@@ -51,21 +69,66 @@ public class MessageService {
         return savedMessage;
     }
 
-    private User getUserForMessage(Long userId) {
-        try {
-            return userService.getUserById(userId);
-        } catch (Exception e) {
-            logger.error("User not found for message creation. User ID: {}", userId);
-            throw new RuntimeException("User not found for message creation", e);
+    /**
+     * Retrieves a page of the messages on a rental of the current user, newest first.
+     * Recent messages are read from the database; once they run out, the page continues with the archived ones.
+     *
+     * @param rentalId The ID of the rental.
+     * @param before The ID of the last message of the previous page, or null for the first page.
+     * @param limit The maximum number of messages to return.
+     * @return The messages of the page and the value of {@code before} for the next page, or null if this is the last page.
+     * @throws ResourceNotFoundException if the rental is not found.
+     * @throws ForbiddenException if the current user is not the owner of the rental.
+     */
+    @Transactional(readOnly = true)
+    public MessagePageRecord getRentalMessages(Long rentalId, Long before, int limit) {
+        Rental rental = rentalService.getRentalById(rentalId);
+        if (!rental.getOwner().getId().equals(jwtService.getCurrentUserId())) {
+            throw new ForbiddenException("Only the owner can read the messages of rental with id: " + rentalId);
         }
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        long beforeId = before != null ? before : Long.MAX_VALUE;
+        List<StoredMessageRecord> messages;
+        long watermark;
+        do {
+            // Rows up to the watermark are archived, or about to be deleted; if it moves during the query, some of
+            // the rows after it may have been deleted before they were read, so the query is run again.
+            watermark = messageArchive.watermark();
+            messages = new ArrayList<>(beforeId > watermark + 1
+                    ? messageRepository.findByRentalBetweenDesc(rentalId, watermark, beforeId, Limit.of(pageSize))
+                    : List.of());
+        } while (messageArchive.watermark() != watermark);
+        if (messages.size() < pageSize && watermark > 0) {
+            messages.addAll(messageArchive.findByRentalBefore(rentalId, Math.min(beforeId, watermark + 1),
+                    pageSize - messages.size()));
+        }
+        Long next = messages.size() == pageSize ? messages.get(messages.size() - 1).id() : null;
+        return new MessagePageRecord(messages, next);
     }
 
-    private Rental getRentalForMessage(Long rentalId) {
-        try {
-            return rentalService.getRentalById(rentalId);
-        } catch (Exception e) {
-            logger.error("Rental not found for message creation. Rental ID: {}", rentalId);
-            throw new RuntimeException("Rental not found for message creation", e);
+    /**
+     * Retrieves messages on a rental in ascending id order, the archived ones first.
+     * Ownership is not checked.
+     *
+     * @param rentalId The ID of the rental.
+     * @param afterId Only messages with a greater id are returned.
+     * @param limit The maximum number of messages to return.
+     */
+    @Transactional(readOnly = true)
+    public List<StoredMessageRecord> getRentalMessagesAfter(long rentalId, long afterId, int limit) {
+        while (true) {
+            long watermark = messageArchive.watermark();
+            List<StoredMessageRecord> messages = new ArrayList<>(afterId < watermark
+                    ? messageArchive.findByRentalAfter(rentalId, afterId, limit)
+                    : List.of());
+            if (messages.size() == limit) {
+                return messages;
+            }
+            messages.addAll(messageRepository.findByRentalAfter(rentalId, Math.max(afterId, watermark),
+                    Limit.of(limit - messages.size())));
+            if (messageArchive.watermark() == watermark) {
+                return messages;
+            }
         }
     }
-}
\ No newline at end of file
+}
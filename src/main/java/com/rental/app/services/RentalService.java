@@ -1,52 +1,91 @@
 package com.rental.app.services;
 
+import com.rental.app.catalog.RentalCatalog;
+import com.rental.app.catalog.RentalSearchIndex;
+import com.rental.app.catalog.RentalStatistics;
+import com.rental.app.catalog.RentalViewCounter;
+import com.rental.app.dtos.FilteredRentalsRecord;
+import com.rental.app.dtos.RentalChangesRecord;
+import com.rental.app.dtos.RentalPageRecord;
+import com.rental.app.dtos.RentalStatsRecord;
 import com.rental.app.dtos.UpdateRentalDto;
+import com.rental.app.dtos.ViewedRentalsRecord;
+import com.rental.app.entities.RentalTombstone;
+import com.rental.app.events.RentalChangedEvent;
+import com.rental.app.exceptions.ForbiddenException;
+import com.rental.app.exceptions.InvalidRequestException;
+import com.rental.app.repositories.MessageRepository;
+import com.rental.app.repositories.RentalTombstoneRepository;
+import com.rental.app.repositories.RentalViewRepository;
+import com.rental.app.utils.ChangeCursor;
 import com.rental.app.utils.Mapper;
 import com.rental.app.dtos.CreateRentalDto;
 import com.rental.app.entities.Rental;
+import com.rental.app.exceptions.ResourceNotFoundException;
 import com.rental.app.repositories.RentalRepository;
-import jakarta.servlet.ServletContext;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.env.Environment;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
-import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.util.UriComponentsBuilder;
 
-import java.io.IOException;
 import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for rental-related operations.
  * This service handles the creation, retrieval, and update of rental listings in the application.
  */
 @Service
+@Timed("app.service")
 public class RentalService {
 
     private static final Logger logger = LoggerFactory.getLogger(RentalService.class);
+    private static final int MAX_CHANGES_LIMIT = 1000;
+    private static final int MAX_FILTER_LIMIT = 200;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_OWNER_PAGE_SIZE = 200;
+    private static final int MAX_MOST_VIEWED_LIMIT = 100;
 
-    @Value("${app.upload.dir:${user.home}}")
-    private String uploadDir;
+    @Value("${app.rentals.changes.settle-window:PT2S}")
+    private Duration changesSettleWindow;
 
     private final RentalRepository rentalRepository;
+    private final RentalTombstoneRepository rentalTombstoneRepository;
+    private final MessageRepository messageRepository;
     private final JwtService jwtService;
-    private final ServletContext servletContext;
-    private final Environment environment;
+    private final FileStorageService fileStorageService;
+    private final RentalCatalog rentalCatalog;
+    private final RentalSearchIndex rentalSearchIndex;
+    private final RentalStatistics rentalStatistics;
+    private final RentalViewCounter rentalViewCounter;
+    private final RentalViewRepository rentalViewRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public RentalService(RentalRepository rentalRepository, JwtService jwtService, ServletContext servletContext, Environment environment) {
+    public RentalService(RentalRepository rentalRepository, RentalTombstoneRepository rentalTombstoneRepository,
+                         MessageRepository messageRepository, JwtService jwtService, FileStorageService fileStorageService,
+                         RentalCatalog rentalCatalog, RentalSearchIndex rentalSearchIndex,
+                         RentalStatistics rentalStatistics, RentalViewCounter rentalViewCounter,
+                         RentalViewRepository rentalViewRepository, ApplicationEventPublisher eventPublisher) {
         this.rentalRepository = rentalRepository;
+        this.rentalTombstoneRepository = rentalTombstoneRepository;
+        this.messageRepository = messageRepository;
         this.jwtService = jwtService;
-        this.servletContext = servletContext;
-        this.environment = environment;
+        this.fileStorageService = fileStorageService;
+        this.rentalCatalog = rentalCatalog;
+        this.rentalSearchIndex = rentalSearchIndex;
+        this.rentalStatistics = rentalStatistics;
+        this.rentalViewCounter = rentalViewCounter;
+        this.rentalViewRepository = rentalViewRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -54,11 +93,54 @@ public class RentalService {
      *
      * @param id The ID of the rental to retrieve.
      * @return The Rental entity.
-     * @throws RuntimeException if the rental is not found.
+     * @throws ResourceNotFoundException if the rental is not found.
      */
+    @Transactional(readOnly = true)
     public Rental getRentalById(Long id) {
         return rentalRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Rental not found with id: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Rental not found with id: " + id));
+    }
+
+    /**
+     * Retrieves a rental by its ID for display, and counts the view.
+     *
+     * @param id The ID of the rental to view.
+     * @return The Rental entity.
+     * @throws ResourceNotFoundException if the rental is not found.
+     */
+    @Transactional(readOnly = true)
+    public Rental viewRental(Long id) {
+        Rental rental = getRentalById(id);
+        rentalViewCounter.recordView(id);
+        return rental;
+    }
+
+    /**
+     * Retrieves the most viewed rentals from the in-memory {@link RentalViewCounter}.
+     *
+     * @param limit The maximum number of rentals to return.
+     * @return The most viewed rentals with their view counts, most viewed first.
+     */
+    @Transactional(readOnly = true)
+    public ViewedRentalsRecord getMostViewedRentals(int limit) {
+        int wanted = Math.min(Math.max(limit, 1), MAX_MOST_VIEWED_LIMIT);
+        int ranked = wanted;
+        while (true) {
+            List<Map.Entry<Long, Long>> mostViewed = rentalViewCounter.mostViewed(ranked);
+            Map<Long, Rental> rentals = rentalRepository.findAllByIdInOrder(mostViewed.stream().map(Map.Entry::getKey).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Rental::getId, Function.identity()));
+            // The counts may still hold rentals deleted by another instance, so rank further to fill the limit.
+            if (rentals.size() < wanted && mostViewed.size() == ranked) {
+                ranked += wanted - rentals.size();
+                continue;
+            }
+            return new ViewedRentalsRecord(mostViewed.stream()
+                    .filter(entry -> rentals.containsKey(entry.getKey()))
+                    .limit(wanted)
+                    .map(entry -> new ViewedRentalsRecord.ViewedRental(rentals.get(entry.getKey()), entry.getValue()))
+                    .toList());
+        }
     }
 
     /**
@@ -66,10 +148,135 @@ public class RentalService {
      *
      * @return A list of all Rental entities.
      */
+    @Transactional(readOnly = true)
     public List<Rental> getAllRentals() {
         return rentalRepository.findAll();
     }
 
+    /**
+     * Retrieves a page of the rentals owned by a user, ordered by id.
+     *
+     * @param ownerId The ID of the owner.
+     * @param after The ID of the last rental of the previous page, or null for the first page.
+     * @param limit The maximum number of rentals to return.
+     * @return The rentals of the page and the value of {@code after} for the next page, or null if this is the last page.
+     */
+    @Transactional(readOnly = true)
+    public RentalPageRecord getRentalsByOwner(Long ownerId, Long after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_OWNER_PAGE_SIZE);
+        List<Rental> rentals = rentalRepository.findByOwnerAfter(ownerId, after != null ? after : 0, Limit.of(pageSize));
+        Long next = rentals.size() == pageSize ? rentals.get(rentals.size() - 1).getId() : null;
+        return new RentalPageRecord(rentals, next);
+    }
+
+    /**
+     * Retrieves a page of the rentals owned by the current user, ordered by id.
+     * The user id is read from the token, so the user is not loaded.
+     *
+     * @param after The ID of the last rental of the previous page, or null for the first page.
+     * @param limit The maximum number of rentals to return.
+     * @return The rentals of the page and the value of {@code after} for the next page, or null if this is the last page.
+     */
+    @Transactional(readOnly = true)
+    public RentalPageRecord getCurrentUserRentals(Long after, int limit) {
+        return getRentalsByOwner(jwtService.getCurrentUserId(), after, limit);
+    }
+
+    /**
+     * Filters and sorts rentals by price and surface using the in-memory {@link RentalCatalog}.
+     * Only the rentals of the requested page are loaded, mostly from the second-level cache.
+     *
+     * @param minPrice The minimum price, or null for no lower bound.
+     * @param maxPrice The maximum price, or null for no upper bound.
+     * @param minSurface The minimum surface in square meters, or null for no lower bound.
+     * @param maxSurface The maximum surface in square meters, or null for no upper bound.
+     * @param sort The order of the results.
+     * @param limit The maximum number of rentals to return.
+     * @return The first matching rentals and the total number of matches.
+     * @throws InvalidRequestException if a price bound is too large.
+     */
+    @Transactional(readOnly = true)
+    public FilteredRentalsRecord filterRentals(BigDecimal minPrice, BigDecimal maxPrice, Integer minSurface,
+                                               Integer maxSurface, RentalCatalog.Sort sort, int limit) {
+        RentalCatalog.Result result = rentalCatalog.filter(
+                priceBound(minPrice),
+                priceBound(maxPrice),
+                minSurface, maxSurface, sort, Math.min(Math.max(limit, 1), MAX_FILTER_LIMIT));
+        return new FilteredRentalsRecord(rentalRepository.findAllByIdInOrder(result.ids()), result.total());
+    }
+
+    private static Long priceBound(BigDecimal price) {
+        try {
+            return price != null ? RentalCatalog.toCents(price) : null;
+        } catch (ArithmeticException e) {
+            throw new InvalidRequestException("Price out of range: " + price);
+        }
+    }
+
+    /**
+     * Searches rentals by name and description using the in-memory {@link RentalSearchIndex}.
+     *
+     * @param query The free-text query.
+     * @param page The zero-based page to return.
+     * @param size The number of rentals per page.
+     * @return The rentals of the requested page, best match first, and the total number of matches.
+     * @throws InvalidRequestException if the query is blank.
+     */
+    @Transactional(readOnly = true)
+    public FilteredRentalsRecord searchRentals(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Search query must not be empty");
+        }
+        RentalSearchIndex.Result result = rentalSearchIndex.search(
+                query, Math.max(page, 0), Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE));
+        return new FilteredRentalsRecord(rentalRepository.findAllByIdInOrder(result.ids()), result.total());
+    }
+
+    /**
+     * Retrieves the price and price per square meter statistics of all rentals from {@link RentalStatistics}.
+     *
+     * @return The count, minimum, maximum, mean, percentiles and histogram of both distributions.
+     */
+    public RentalStatsRecord getRentalStatistics() {
+        return rentalStatistics.snapshot();
+    }
+
+    /**
+     * Retrieves the rentals created, updated or deleted since the given cursor.
+     * Changes younger than the settle window are held back until the next call, so that a transaction
+     * committing late with an older timestamp is not skipped by a cursor that has already moved past it.
+     *
+     * @param cursor The cursor returned by the previous call, or null for a first sync.
+     * @param limit The maximum number of rentals and of deletions to return.
+     * @return The changed rentals, the ids of deleted rentals and the cursor to use for the next call.
+     * @throws InvalidRequestException if the cursor is not valid.
+     */
+    @Transactional(readOnly = true)
+    public RentalChangesRecord getRentalChanges(String cursor, int limit) {
+        ChangeCursor position = ChangeCursor.decode(cursor);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_CHANGES_LIMIT);
+        LocalDateTime until = LocalDateTime.now().minus(changesSettleWindow);
+
+        List<Rental> rentals = rentalRepository.findChangedAfter(
+                position.rentalUpdatedAt(), position.rentalId(), until, Limit.of(pageSize));
+        List<RentalTombstone> tombstones = rentalTombstoneRepository.findDeletedAfter(
+                position.deletedAt(), position.tombstoneId(), until, Limit.of(pageSize));
+
+        ChangeCursor next = position;
+        if (!rentals.isEmpty()) {
+            Rental last = rentals.get(rentals.size() - 1);
+            next = new ChangeCursor(last.getUpdatedAt(), last.getId(), next.deletedAt(), next.tombstoneId());
+        }
+        if (!tombstones.isEmpty()) {
+            RentalTombstone last = tombstones.get(tombstones.size() - 1);
+            next = new ChangeCursor(next.rentalUpdatedAt(), next.rentalId(), last.getDeletedAt(), last.getId());
+        }
+
+        List<Long> deleted = tombstones.stream().map(RentalTombstone::getRentalId).toList();
+        boolean hasMore = rentals.size() == pageSize || tombstones.size() == pageSize;
+        return new RentalChangesRecord(rentals, deleted, next.encode(), hasMore);
+    }
+
     /**
      * Adds a new rental.
      *
@@ -81,11 +288,12 @@ public class RentalService {
     public Rental addRental(CreateRentalDto createRentalDto) {
         logger.debug("Adding new rental: {}", createRentalDto);
 
-        String filePath = storeFile(createRentalDto.getPicture());
+        String filePath = fileStorageService.storeFile(createRentalDto.getPicture());
         Rental rental = Mapper.mapRentalDtoToRental(createRentalDto, filePath);
         rental.setOwner(jwtService.getCurrentUser());
 
         Rental savedRental = rentalRepository.save(rental);
+        eventPublisher.publishEvent(RentalChangedEvent.saved(savedRental));
         logger.info("Rental added successfully with ID: {}", savedRental.getId());
         return savedRental;
     }
@@ -96,7 +304,7 @@ public class RentalService {
      * @param updateRentalDto The DTO containing the updated rental details.
      * @param id The ID of the rental to update.
      * @return The updated Rental entity.
-     * @throws RuntimeException if the rental is not found.
+     * @throws ResourceNotFoundException if the rental is not found.
      */
     @Transactional
     public Rental updateRental(UpdateRentalDto updateRentalDto, Long id) {
@@ -106,58 +314,33 @@ public class RentalService {
         updateRentalFields(rental, updateRentalDto);
 
         Rental updatedRental = rentalRepository.save(rental);
+        eventPublisher.publishEvent(RentalChangedEvent.saved(updatedRental));
         logger.info("Rental updated successfully with ID: {}", updatedRental.getId());
         return updatedRental;
     }
 
     /**
-     * Stores a file in the server's file system and returns its URL.
+     * Deletes a rental and its messages, and records a tombstone for the change feed.
      *
-     * @param file The MultipartFile to be stored.
-     * @return A String representing the URL of the stored file.
-     * @throws RuntimeException If there's an error while storing the file.
+     * @param id The ID of the rental to delete.
+     * @throws ResourceNotFoundException if the rental is not found.
+     * @throws ForbiddenException if the current user does not own the rental.
      */
-    private String storeFile(MultipartFile file) {
-        try {
-            String fileName = StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
-            String fileExtension = StringUtils.getFilenameExtension(fileName);
-            String uniqueFileName = UUID.randomUUID() + "." + fileExtension;
-
-            Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
-            Files.createDirectories(uploadPath);
-
-            Path filePath = uploadPath.resolve(uniqueFileName);
-            Files.copy(file.getInputStream(), filePath);
+    @Transactional
+    public void deleteRental(Long id) {
+        logger.debug("Deleting rental with ID: {}", id);
 
-            String baseUrl = getBaseUrl();
-            return baseUrl + "/api/rentals/image/" + uniqueFileName;
-        } catch (IOException e) {
-            logger.error("Failed to store file", e);
-            throw new RuntimeException("Failed to store file", e);
+        Rental rental = getRentalById(id);
+        if (!rental.getOwnerId().equals(jwtService.getCurrentUserId())) {
+            throw new ForbiddenException("Only the owner can delete rental with id: " + id);
         }
-    }
 
-    /**
-     * Generates the base URL for the current server environment.
-     *
-     * This method dynamically constructs the base URL using the server's
-     * configuration. It determines the protocol (http/https), port,
-     * host address, and context path.
-     *
-     * @return A String representing the base URL of the server.
-     */
-    private String getBaseUrl() {
-        String protocol = environment.getProperty("server.ssl.key-store") != null ? "https" : "http";
-        String serverPort = environment.getProperty("server.port", "8080");
-        String contextPath = servletContext.getContextPath();
-
-        return UriComponentsBuilder.newInstance()
-                .scheme(protocol)
-                .host(environment.getProperty("server.address", "localhost"))
-                .port(serverPort)
-                .path(contextPath)
-                .build()
-                .toUriString();
+        int deletedMessages = messageRepository.deleteByRentalId(id);
+        rentalViewRepository.deleteByRentalId(id);
+        rentalRepository.delete(rental);
+        rentalTombstoneRepository.save(new RentalTombstone(id));
+        eventPublisher.publishEvent(RentalChangedEvent.deleted(id));
+        logger.info("Rental deleted successfully with ID: {} ({} messages removed)", id, deletedMessages);
     }
 
     private void updateRentalFields(Rental rental, UpdateRentalDto updateRentalDto) {
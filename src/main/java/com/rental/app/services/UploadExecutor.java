@@ -0,0 +1,78 @@
+package com.rental.app.services;
+
+import com.rental.app.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated threads for the disk and database work of uploads, so that it does not hold server threads.
+ * Tasks run with the security context of the request that submitted them. At most {@code app.upload.queue-size}
+ * tasks wait for a thread; further uploads are turned away with 503 Service Unavailable rather than piling up
+ * behind requests that may time out before their turn comes.
+ */
+@Component
+public class UploadExecutor {
+
+    private final ThreadPoolExecutor threadPool;
+    private final Executor executor;
+
+    public UploadExecutor(@Value("${app.upload.threads:4}") int threads,
+                          @Value("${app.upload.queue-size:20}") int queueSize,
+                          MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.threadPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "upload-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor = new DelegatingSecurityContextExecutor(threadPool);
+        Gauge.builder("app.upload.queue", threadPool, pool -> pool.getQueue().size())
+                .description("Uploads waiting for an upload thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a task on an upload thread. Cancelling the returned future before the task starts skips the task.
+     *
+     * @param task The task to run.
+     * @return A future completed with the result of the task, or with the exception it threw.
+     * @throws ServiceUnavailableException if the queue of waiting tasks is full.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(task.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Too many uploads in progress, please retry");
+        }
+        return future;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        threadPool.shutdown();
+    }
+}
@@ -13,14 +13,20 @@ import java.util.Collections;
  */
 public class UserInfoDetails implements UserDetails {
 
+    private Long id;
     private String username;
     private String password;
 
     public UserInfoDetails(User user) {
+        this.id = user.getId();
         this.username = user.getEmail(); // Email is used as 'username'
         this.password = user.getPassword();
     }
 
+    public Long getId() {
+        return id;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.EMPTY_LIST;
@@ -1,7 +1,10 @@
 package com.rental.app.services;
 
 import com.rental.app.entities.User;
+import com.rental.app.exceptions.ConflictException;
+import com.rental.app.exceptions.ResourceNotFoundException;
 import com.rental.app.repositories.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
  * and provides methods for user authentication, creation, and retrieval.
  */
 @Service("userDetailsService")
+@Timed("app.service")
 public class UserInfoService implements UserDetailsService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserInfoService.class);
@@ -39,7 +43,7 @@ public class UserInfoService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         logger.debug("Attempting to load user by username: {}", username);
-        return userRepository.findByEmail(username)
+        return userRepository.findByEmailNaturalId(username)
                 .map(UserInfoDetails::new)
                 .orElseThrow(() -> {
                     logger.warn("User not found: {}", username);
@@ -52,14 +56,14 @@ public class UserInfoService implements UserDetailsService {
      *
      * @param user The user to add.
      * @return The ID of the newly created user.
-     * @throws RuntimeException if a user with the same email already exists.
+     * @throws ConflictException if a user with the same email already exists.
      */
     @Transactional
     public Long addUser(User user) {
         logger.debug("Attempting to add new user: {}", user.getEmail());
-        if (userRepository.findByEmail(user.getEmail()).isPresent()) {
+        if (userRepository.findByEmailNaturalId(user.getEmail()).isPresent()) {
             logger.warn("Attempt to add user with existing email: {}", user.getEmail());
-            throw new RuntimeException("User with email " + user.getEmail() + " already exists");
+            throw new ConflictException("User with email " + user.getEmail() + " already exists");
         }
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         User savedUser = userRepository.save(user);
@@ -72,15 +76,12 @@ public class UserInfoService implements UserDetailsService {
      *
      * @param id The ID of the user to retrieve.
      * @return The User entity.
-     * @throws RuntimeException if the user is not found.
+     * @throws ResourceNotFoundException if the user is not found.
      */
     @Transactional(readOnly = true)
     public User getUserById(Long id) {
         logger.debug("Attempting to get user by ID: {}", id);
         return userRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.warn("User not found with ID: {}", id);
-                    return new RuntimeException("User not found with id: " + id);
-                });
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
     }
 }
\ No newline at end of file
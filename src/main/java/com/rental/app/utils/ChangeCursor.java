@@ -0,0 +1,65 @@
+package com.rental.app.utils;
+
+import com.rental.app.exceptions.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of a client in the rental change feed.
+ * Rentals and tombstones are read as two keyset streams ordered by timestamp and id, so the cursor
+ * keeps the last position seen in each of them. It is handed to clients as an opaque URL-safe token.
+ *
+ * @param rentalUpdatedAt The {@code updated_at} of the last rental returned.
+ * @param rentalId The id of the last rental returned.
+ * @param deletedAt The {@code deleted_at} of the last tombstone returned.
+ * @param tombstoneId The id of the last tombstone returned.
+ */
+public record ChangeCursor(LocalDateTime rentalUpdatedAt, long rentalId, LocalDateTime deletedAt, long tombstoneId) {
+
+    /**
+     * Cursor positioned before every change, used when a client syncs for the first time.
+     */
+    public static final ChangeCursor INITIAL = new ChangeCursor(
+            LocalDateTime.of(1970, 1, 1, 0, 0), 0, LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes the cursor into the token returned to clients.
+     *
+     * @return A URL-safe token.
+     */
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, rentalUpdatedAt.toString(), Long.toString(rentalId),
+                deletedAt.toString(), Long.toString(tombstoneId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token The token sent by the client, or null or blank for a first sync.
+     * @return The decoded cursor, or {@link #INITIAL} if no token was given.
+     * @throws InvalidRequestException if the token is not a valid cursor.
+     */
+    public static ChangeCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return INITIAL;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            return new ChangeCursor(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]),
+                    LocalDateTime.parse(parts[3]), Long.parseLong(parts[4]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+}
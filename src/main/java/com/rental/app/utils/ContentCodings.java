@@ -0,0 +1,45 @@
+package com.rental.app.utils;
+
+/**
+ * Utility class for reading the content codings a client accepts.
+ */
+public final class ContentCodings {
+
+    private ContentCodings() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Returns whether an Accept-Encoding header allows gzip, explicitly or through {@code *}, with a non-zero quality.
+     *
+     * @param acceptEncoding The Accept-Encoding header, or null if the request has none.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            double quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                return quality > 0;
+            }
+            if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        return wildcard != null && wildcard > 0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.rental.app.utils;
+
+import com.rental.app.exceptions.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a client in the export of its data.
+ * The export writes each rental followed by the messages on it, both ordered by id, so the position is the last
+ * rental written and the last of its messages written. It is handed to clients as an opaque URL-safe token.
+ *
+ * @param rentalId The id of the last rental written, or 0 before the first one.
+ * @param messageId The id of the last message written on that rental, or 0 if none of them was written yet.
+ */
+public record ExportCursor(long rentalId, long messageId) {
+
+    /**
+     * Cursor positioned before the first rental, used when an export starts.
+     */
+    public static final ExportCursor INITIAL = new ExportCursor(0, 0);
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes the cursor into the token returned to clients.
+     *
+     * @return A URL-safe token.
+     */
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, Long.toString(rentalId), Long.toString(messageId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token The token sent by the client, or null or blank to start from the beginning.
+     * @return The decoded cursor, or {@link #INITIAL} if no token was given.
+     * @throws InvalidRequestException if the token is not a valid cursor.
+     */
+    public static ExportCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return INITIAL;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            return new ExportCursor(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.rental.app.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.app.dtos.CreateRentalDto;
+import com.rental.app.dtos.LoginDto;
+import com.rental.app.dtos.MessageDto;
+import com.rental.app.dtos.MessageRecord;
+import com.rental.app.dtos.RegisterDto;
+import com.rental.app.dtos.RentalsRecord;
+import com.rental.app.entities.Rental;
+import com.rental.app.entities.User;
+import com.rental.app.repositories.MessageRepository;
+import com.rental.app.repositories.RentalRepository;
+import com.rental.app.repositories.UserRepository;
+import com.rental.app.services.JwtService;
+import com.rental.app.utils.Mapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exercises the request hot paths before the instance reports ready, so the JIT compiles them before real traffic does.
+ * Spring Boot only moves the readiness state to {@code ACCEPTING_TRAFFIC} once every {@link ApplicationRunner} has
+ * returned, so {@code /actuator/health/readiness} stays {@code OUT_OF_SERVICE} until the warm-up is over.
+ * Each round serializes a synthetic rentals list in every response format, reads request bodies, signs and verifies
+ * a JWT, runs the {@link Mapper} conversions, runs the read-only repository queries and checks a BCrypt password.
+ * Rounds repeat until {@code app.warmup.duration} is spent; nothing is written to the database.
+ * {@code app.warmup.enabled} is checked when the runner runs rather than by a bean condition, which an ahead-of-time
+ * build would fix.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+    private static final int RENTALS = 100;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final List<ObjectMapper> objectMappers;
+    private final ObjectMapper objectMapper;
+    private final JwtEncoder jwtEncoder;
+    private final JwtDecoder jwtDecoder;
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final RentalRepository rentalRepository;
+    private final MessageRepository messageRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer warmupTimer;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.duration:PT15S}")
+    private Duration duration;
+
+    @Value("${jwt.issuer}")
+    private String jwtIssuer;
+
+    public WarmupRunner(ObjectMapper objectMapper,
+                        MappingJackson2CborHttpMessageConverter cborConverter,
+                        MappingJackson2SmileHttpMessageConverter smileConverter,
+                        JwtEncoder jwtEncoder,
+                        JwtDecoder jwtDecoder,
+                        PasswordEncoder passwordEncoder,
+                        UserRepository userRepository,
+                        RentalRepository rentalRepository,
+                        MessageRepository messageRepository,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.objectMappers = List.of(objectMapper, cborConverter.getObjectMapper(), smileConverter.getObjectMapper());
+        this.jwtEncoder = jwtEncoder;
+        this.jwtDecoder = jwtDecoder;
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.rentalRepository = rentalRepository;
+        this.messageRepository = messageRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.warmupTimer = Timer.builder("app.warmup")
+                .description("Time spent warming up the hot paths before reporting ready")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        logger.info("Warming up for {}", duration);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<Rental> rentals = syntheticRentals();
+        String passwordHash = passwordEncoder.encode("warm-up");
+        int rounds = 0;
+        do {
+            try {
+                serialize(rentals);
+                signAndVerifyToken(rounds);
+                map();
+                query();
+                passwordEncoder.matches("warm-up", passwordHash);
+            } catch (RuntimeException e) {
+                logger.warn("Warm-up stopped after {} rounds", rounds, e);
+                break;
+            }
+            rounds++;
+        } while (System.nanoTime() < deadline);
+        long elapsed = System.nanoTime() - start;
+        warmupTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("Warm-up finished: {} rounds in {} ms", rounds, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private static List<Rental> syntheticRentals() {
+        User owner = new User("Warm-up", "warm-up@example.com", "unused");
+        owner.setId(1L);
+        List<Rental> rentals = new ArrayList<>(RENTALS);
+        for (int i = 1; i <= RENTALS; i++) {
+            Rental rental = new Rental("Rental " + i, BigDecimal.valueOf(20 + i), BigDecimal.valueOf(500 + 10L * i),
+                    "http://localhost/api/rentals/image/" + i + ".jpg", "Synthetic rental used to warm up serialization");
+            rental.setId((long) i);
+            rental.setOwner(owner);
+            rental.setCreatedAt(LocalDateTime.now());
+            rental.setUpdatedAt(LocalDateTime.now());
+            rentals.add(rental);
+        }
+        return rentals;
+    }
+
+    private void serialize(List<Rental> rentals) {
+        try {
+            for (ObjectMapper mapper : objectMappers) {
+                mapper.writeValueAsBytes(new RentalsRecord(rentals));
+                mapper.writeValueAsBytes(rentals.get(0));
+                mapper.writeValueAsBytes(rentals.get(0).getOwner());
+                mapper.writeValueAsBytes(new MessageRecord("Warm-up"));
+            }
+            objectMapper.readValue("{\"email\":\"warm-up@example.com\",\"password\":\"warm-up\"}", LoginDto.class);
+            objectMapper.readValue("{\"name\":\"Warm-up\",\"email\":\"warm-up@example.com\",\"password\":\"warm-up\"}",
+                    RegisterDto.class);
+            objectMapper.readValue("{\"message\":\"Is it available?\",\"rental_id\":1,\"user_id\":1}", MessageDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to warm up serialization", e);
+        }
+    }
+
+    /**
+     * Signs a token shaped like the ones {@link JwtService} issues and verifies it. The service itself is not called
+     * because it logs every token it issues.
+     */
+    private void signAndVerifyToken(int round) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(jwtIssuer)
+                .issuedAt(now)
+                .expiresAt(now.plus(1, ChronoUnit.HOURS))
+                .subject("warm-up@example.com")
+                .claim(JwtService.USER_ID_CLAIM, (long) round)
+                .build();
+        String token = jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+        jwtDecoder.decode(token);
+    }
+
+    private static void map() {
+        RegisterDto registerDto = new RegisterDto();
+        registerDto.setName("Warm-up");
+        registerDto.setEmail("warm-up@example.com");
+        registerDto.setPassword("warm-up");
+        User user = Mapper.mapRegisterDtoToUser(registerDto);
+        Mapper.mapRegisterDtoToLoginDto(registerDto);
+
+        CreateRentalDto createRentalDto = new CreateRentalDto();
+        createRentalDto.setName("Warm-up");
+        createRentalDto.setSurface("42.5");
+        createRentalDto.setPrice("900");
+        createRentalDto.setDescription("Synthetic rental");
+        Rental rental = Mapper.mapRentalDtoToRental(createRentalDto, "http://localhost/api/rentals/image/warm-up.jpg");
+
+        MessageDto messageDto = new MessageDto();
+        messageDto.setMessage("Is it available?");
+        Mapper.mapMessageDtoToMessage(messageDto, user, rental);
+    }
+
+    /**
+     * Runs the queries behind the read endpoints in a read-only transaction, which goes to the replica when one is set.
+     */
+    private void query() {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            userRepository.findByEmailNaturalId("warm-up@example.com");
+            List<Rental> changed = rentalRepository.findChangedAfter(EPOCH, 0, LocalDateTime.now(), Limit.of(50));
+            if (changed.isEmpty()) {
+                return;
+            }
+            Rental first = changed.get(0);
+            rentalRepository.findById(first.getId());
+            rentalRepository.findAllByIdInOrder(changed.stream().map(Rental::getId).toList());
+            rentalRepository.findByOwnerAfter(first.getOwnerId(), 0, Limit.of(20));
+            messageRepository.findByRental(first);
+        });
+    }
+}
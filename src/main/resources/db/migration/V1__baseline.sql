@@ -0,0 +1,40 @@
+-- Schema as generated by Hibernate (ddl-auto=update) before migrations were introduced.
+-- Existing databases are baselined at this version and start at V2, so it must not change.
+
+create table users (
+    id bigint not null auto_increment,
+    email varchar(255),
+    name varchar(255),
+    password varchar(255),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table rentals (
+    id bigint not null auto_increment,
+    name varchar(255),
+    surface decimal(38,2),
+    price decimal(38,2),
+    picture varchar(255),
+    description varchar(255),
+    owner_id bigint not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table messages (
+    id bigint not null auto_increment,
+    rental_id bigint,
+    user_id bigint,
+    message varchar(255),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table rentals add constraint FKf462yhxa9vd3m2qdmcoixg1fv foreign key (owner_id) references users (id);
+alter table messages add constraint FK3ce1i9w1rtics9wjwj8y5y3md foreign key (rental_id) references rentals (id);
+alter table messages add constraint FKpsmh6clh3csorw43eaodlqvkn foreign key (user_id) references users (id);
@@ -0,0 +1,19 @@
+-- Tables and indexes of the rental change feed (/api/rentals/changes), the owner listing (/api/rentals/mine)
+-- and the view counter.
+
+create table rental_tombstones (
+    id bigint not null auto_increment,
+    rental_id bigint not null,
+    deleted_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table rental_views (
+    rental_id bigint not null,
+    views bigint not null,
+    primary key (rental_id)
+) engine=InnoDB;
+
+create index idx_rentals_updated_at_id on rentals (updated_at, id);
+create index idx_rentals_owner_id_id on rentals (owner_id, id);
+create index idx_rental_tombstones_deleted_at_id on rental_tombstones (deleted_at, id);
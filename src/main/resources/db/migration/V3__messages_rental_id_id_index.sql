@@ -0,0 +1,2 @@
+-- Keyset reads of the messages on a rental (the data export) walk this index in id order instead of sorting.
+create index idx_messages_rental_id_id on messages (rental_id, id);
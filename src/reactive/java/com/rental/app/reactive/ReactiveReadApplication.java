@@ -0,0 +1,36 @@
+package com.rental.app.reactive;
+
+import com.rental.app.config.JwtConfig;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Read-only edge variant of the API on WebFlux, Netty and R2DBC.
+ * Serves the rentals list (streamed), a rental, a user, the current user and rental pictures from the same database
+ * and with the same JWT validation ({@link JwtConfig}) as the servlet application, without JDBC, JPA or server threads
+ * blocked on I/O. Only built with the {@code reactive} Maven profile; started with the {@code reactive} Spring profile.
+ */
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Import(JwtConfig.class)
+public class ReactiveReadApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveReadApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+
+    // Tomcat is on the classpath for the servlet application and would otherwise be picked first.
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
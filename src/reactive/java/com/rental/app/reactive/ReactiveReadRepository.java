@@ -0,0 +1,79 @@
+package com.rental.app.reactive;
+
+import com.rental.app.entities.Rental;
+import com.rental.app.entities.User;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only queries of the reactive read application over R2DBC.
+ * Rows are mapped to the JPA entity classes so responses serialize exactly as in the servlet application;
+ * the owner of a rental only carries its id.
+ */
+public class ReactiveReadRepository {
+
+    private static final String RENTAL_COLUMNS =
+            "SELECT id, name, surface, price, picture, description, owner_id, created_at, updated_at FROM rentals";
+    private static final String USER_COLUMNS = "SELECT id, email, name, created_at, updated_at FROM users";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Streams all rentals by id. Rows are fetched as the subscriber requests them.
+     */
+    public Flux<Rental> findAllRentals() {
+        return databaseClient.sql(RENTAL_COLUMNS + " ORDER BY id")
+                .map(ReactiveReadRepository::rental)
+                .all();
+    }
+
+    public Mono<Rental> findRentalById(long id) {
+        return databaseClient.sql(RENTAL_COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveReadRepository::rental)
+                .one();
+    }
+
+    public Mono<User> findUserById(long id) {
+        return databaseClient.sql(USER_COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveReadRepository::user)
+                .one();
+    }
+
+    public Mono<User> findUserByEmail(String email) {
+        return databaseClient.sql(USER_COLUMNS + " WHERE email = :email")
+                .bind("email", email)
+                .map(ReactiveReadRepository::user)
+                .one();
+    }
+
+    private static Rental rental(Readable row) {
+        User owner = new User();
+        owner.setId(row.get("owner_id", Long.class));
+        Rental rental = new Rental(row.get("name", String.class), row.get("surface", BigDecimal.class),
+                row.get("price", BigDecimal.class), row.get("picture", String.class), row.get("description", String.class));
+        rental.setId(row.get("id", Long.class));
+        rental.setOwner(owner);
+        rental.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        rental.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return rental;
+    }
+
+    private static User user(Readable row) {
+        User user = new User(row.get("name", String.class), row.get("email", String.class), null);
+        user.setId(row.get("id", Long.class));
+        user.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        user.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return user;
+    }
+}
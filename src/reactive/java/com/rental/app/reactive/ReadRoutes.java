@@ -0,0 +1,168 @@
+package com.rental.app.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.app.dtos.MessageRecord;
+import com.rental.app.entities.Rental;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.LongFunction;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Read endpoints of the reactive read application, with the same paths and response bodies as the servlet controllers.
+ * The rentals list is streamed as the rows arrive: as NDJSON when asked for, otherwise as the usual
+ * {@code {"rentals": [...]}} document written in batches, so a slow client slows down the query instead of the
+ * server buffering the whole list. Views of a rental are not counted here.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReadRoutes {
+
+    private static final int BATCH_SIZE = 64;
+    private static final byte[] LIST_START = "{\"rentals\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LIST_END = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final ReactiveReadRepository repository;
+
+    @Value("${app.upload.dir:${user.home}}")
+    private String uploadDir;
+
+    public ReadRoutes(ObjectMapper objectMapper, DatabaseClient databaseClient) {
+        this.objectMapper = objectMapper;
+        this.repository = new ReactiveReadRepository(databaseClient);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> readRouterFunction() {
+        return route(GET("/api/rentals").and(ReadRoutes::acceptsNdjson), this::streamRentals)
+                .andRoute(GET("/api/rentals"), this::listRentals)
+                .andRoute(GET("/api/rentals/image/{filename}"), this::serveFile)
+                .andRoute(GET("/api/rentals/{id}"), this::getRental)
+                .andRoute(GET("/api/user/{id}"), this::getUser)
+                .andRoute(GET("/api/auth/me"), this::getCurrentUser);
+    }
+
+    // Only an explicit NDJSON Accept header selects the stream; wildcards keep the usual document.
+    private static boolean acceptsNdjson(ServerRequest request) {
+        return request.headers().accept().stream()
+                .anyMatch(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON));
+    }
+
+    private Mono<ServerResponse> streamRentals(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(repository.findAllRentals(), Rental.class);
+    }
+
+    private Mono<ServerResponse> listRentals(ServerRequest request) {
+        Flux<DataBuffer> body = Flux.concat(
+                Mono.fromSupplier(() -> wrap(LIST_START)),
+                repository.findAllRentals()
+                        .buffer(BATCH_SIZE)
+                        .index()
+                        .map(batch -> wrap(serialize(batch.getT2(), batch.getT1() == 0))),
+                Mono.fromSupplier(() -> wrap(LIST_END)));
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromDataBuffers(body));
+    }
+
+    private byte[] serialize(List<Rental> rentals, boolean first) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(rentals.size() * 512);
+        try {
+            for (Rental rental : rentals) {
+                if (!first) {
+                    output.write(',');
+                }
+                first = false;
+                output.writeBytes(objectMapper.writeValueAsBytes(rental));
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to serialize rentals", e);
+        }
+        return output.toByteArray();
+    }
+
+    private static DataBuffer wrap(byte[] bytes) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+    }
+
+    private Mono<ServerResponse> getRental(ServerRequest request) {
+        return withId(request, id -> repository.findRentalById(id)
+                .flatMap(rental -> ServerResponse.ok().bodyValue(rental))
+                .switchIfEmpty(message(HttpStatus.NOT_FOUND, "Rental not found with id: " + id)));
+    }
+
+    private Mono<ServerResponse> getUser(ServerRequest request) {
+        return withId(request, id -> repository.findUserById(id)
+                .flatMap(user -> ServerResponse.ok().bodyValue(user))
+                .switchIfEmpty(message(HttpStatus.NOT_FOUND, "User not found with id: " + id)));
+    }
+
+    private Mono<ServerResponse> getCurrentUser(ServerRequest request) {
+        return request.principal()
+                .flatMap(principal -> repository.findUserByEmail(principal.getName()))
+                .flatMap(user -> ServerResponse.ok().bodyValue(user))
+                .switchIfEmpty(message(HttpStatus.UNAUTHORIZED, "Authentication failed"));
+    }
+
+    private Mono<ServerResponse> serveFile(ServerRequest request) {
+        String filename = request.pathVariable("filename");
+        // Unlike Tomcat, Netty and the reactive security chain let an encoded slash through, and it is decoded here.
+        if (filename.contains("/") || filename.contains("\\") || filename.contains("..")) {
+            return message(HttpStatus.NOT_FOUND, "File not found: " + filename);
+        }
+        Path directory = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path file = directory.resolve(filename).normalize();
+        FileSystemResource resource = new FileSystemResource(file);
+        if (!file.startsWith(directory) || !resource.isReadable()) {
+            return message(HttpStatus.NOT_FOUND, "File not found: " + filename);
+        }
+        // File resources are written with zero-copy transfer by Netty.
+        return ServerResponse.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
+                .bodyValue(resource);
+    }
+
+    private static Mono<ServerResponse> withId(ServerRequest request, LongFunction<Mono<ServerResponse>> handler) {
+        long id;
+        try {
+            id = Long.parseLong(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return message(HttpStatus.BAD_REQUEST, "Invalid number");
+        }
+        return handler.apply(id);
+    }
+
+    private static Mono<ServerResponse> message(HttpStatus status, String message) {
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new MessageRecord(message));
+    }
+}
@@ -0,0 +1,119 @@
+package com.rental.app.archive;
+
+import com.rental.app.dtos.StoredMessageRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageArchiveTests {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_000_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsMessagesOfARentalInBothDirections() {
+        MessageArchive archive = archive();
+        archive.append(messages(1, 40));
+        archive.append(messages(41, 80));
+
+        assertThat(archive.watermark()).isEqualTo(80);
+        assertThat(ids(archive.findByRentalAfter(1, 0, 100))).containsExactly(1L, 4L, 7L, 10L, 13L, 16L, 19L, 22L,
+                25L, 28L, 31L, 34L, 37L, 40L, 43L, 46L, 49L, 52L, 55L, 58L, 61L, 64L, 67L, 70L, 73L, 76L, 79L);
+        assertThat(ids(archive.findByRentalAfter(2, 35, 3))).containsExactly(38L, 41L, 44L);
+        assertThat(ids(archive.findByRentalBefore(3, 45, 4))).containsExactly(42L, 39L, 36L, 33L);
+        assertThat(archive.findByRentalBefore(3, 3, 10)).isEmpty();
+        assertThat(archive.findByRentalAfter(1, 0, 1).get(0)).isEqualTo(message(1));
+    }
+
+    @Test
+    void rollsSegmentsAndReopensFromTheIndex() throws IOException {
+        MessageArchive archive = archive();
+        for (int first = 1; first <= 400; first += 40) {
+            archive.append(messages(first, first + 39));
+        }
+
+        MessageArchive reopened = archive();
+
+        try (var files = Files.list(directory)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".seg")).count()).isGreaterThan(1);
+        }
+        assertThat(reopened.watermark()).isEqualTo(400);
+        assertThat(reopened.findByRentalAfter(2, 0, 200)).isEqualTo(archive.findByRentalAfter(2, 0, 200));
+    }
+
+    @Test
+    void ignoresAndOverwritesAnUnfinishedWrite() throws IOException {
+        MessageArchive archive = archive();
+        archive.append(messages(1, 30));
+        Files.write(directory.resolve("messages.idx"), new byte[]{'B', 0, 0, 0}, StandardOpenOption.APPEND);
+
+        MessageArchive reopened = archive();
+        assertThat(reopened.watermark()).isEqualTo(30);
+
+        reopened.append(messages(31, 60));
+        assertThat(archive().watermark()).isEqualTo(60);
+        assertThat(ids(archive().findByRentalBefore(1, Long.MAX_VALUE, 2))).containsExactly(58L, 55L);
+    }
+
+    @Test
+    void seesWhatAnotherInstanceArchivedBeforeTheNextRefresh() {
+        MessageArchive reader = archive();
+        MessageArchive writer = archive();
+
+        writer.append(messages(1, 30));
+
+        assertThat(reader.watermark()).isEqualTo(30);
+        assertThat(ids(reader.findByRentalBefore(2, Long.MAX_VALUE, 2))).containsExactly(29L, 26L);
+    }
+
+    @Test
+    void dropsDeletedRentalsOnEveryInstance() {
+        MessageArchive archive = archive();
+        MessageArchive reader = archive();
+        archive.append(messages(1, 30));
+        assertThat(reader.watermark()).isEqualTo(30);
+        assertThat(reader.findByRentalAfter(2, 0, 100)).hasSize(10);
+
+        archive.forget(List.of(2L));
+
+        assertThat(archive.archivedRentalIds()).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(reader.watermark()).isEqualTo(30);
+        assertThat(reader.findByRentalAfter(2, 0, 100)).isEmpty();
+        assertThat(archive().findByRentalAfter(2, 0, 100)).isEmpty();
+        assertThat(ids(archive().findByRentalBefore(3, Long.MAX_VALUE, 2))).containsExactly(30L, 27L);
+    }
+
+    private MessageArchive archive() {
+        return new MessageArchive(directory.toString(), DataSize.ofKilobytes(1), new SimpleMeterRegistry());
+    }
+
+    private static List<StoredMessageRecord> messages(long firstId, long lastId) {
+        List<StoredMessageRecord> messages = new ArrayList<>();
+        for (long id = firstId; id <= lastId; id++) {
+            messages.add(message(id));
+        }
+        return messages;
+    }
+
+    private static StoredMessageRecord message(long id) {
+        return new StoredMessageRecord(id, (id - 1) % 3 + 1, id % 5 + 1, "Is this rental still available? (message " + id + ")",
+                CREATED_AT, id % 2 == 0 ? CREATED_AT.plusHours(id) : null);
+    }
+
+    private static List<Long> ids(List<StoredMessageRecord> messages) {
+        return messages.stream().map(StoredMessageRecord::id).toList();
+    }
+}
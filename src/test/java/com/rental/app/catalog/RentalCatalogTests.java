@@ -0,0 +1,73 @@
+package com.rental.app.catalog;
+
+import com.rental.app.entities.Rental;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RentalCatalogTests {
+
+    private RentalCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new RentalCatalog(new SimpleMeterRegistry());
+        List<Rental> rentals = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            rentals.add(rental(id, "%d.50".formatted(id % 1000), id % 200, LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id)));
+        }
+        catalog.upsert(rentals);
+    }
+
+    @Test
+    void filtersByRangeAndSortsByPrice() {
+        RentalCatalog.Result result = catalog.filter(10_000L, 10_300L, 50, null, RentalCatalog.Sort.PRICE_ASC, 4);
+
+        assertThat(result.total()).isEqualTo(9);
+        assertThat(result.ids()).containsExactly(100L, 1100L, 2100L, 101L);
+    }
+
+    @Test
+    void returnsNewestFirst() {
+        RentalCatalog.Result result = catalog.filter(null, null, null, null, RentalCatalog.Sort.NEWEST, 3);
+
+        assertThat(result.total()).isEqualTo(3000);
+        assertThat(result.ids()).containsExactly(3000L, 2999L, 2998L);
+    }
+
+    @Test
+    void saturatesValuesOutsideTheColumnRange() {
+        catalog.upsert(List.of(rental(3001, "1e30", 3_000_000_000L, LocalDateTime.of(2025, 1, 1, 0, 0))));
+
+        assertThat(catalog.size()).isEqualTo(3001);
+        assertThat(catalog.filter(null, null, 3_000, null, RentalCatalog.Sort.SURFACE_DESC, 1).ids()).containsExactly(3001L);
+        assertThat(catalog.filter(null, null, null, null, RentalCatalog.Sort.PRICE_DESC, 1).ids()).containsExactly(3001L);
+    }
+
+    @Test
+    void appliesUpdatesAndRemovals() {
+        catalog.upsert(List.of(rental(100, "5.00", 60, LocalDateTime.of(2025, 1, 1, 0, 0))));
+        catalog.remove(List.of(1100L, 4242L));
+        catalog.upsert(List.of(rental(2100, "1.00", 60, LocalDateTime.of(2023, 1, 1, 0, 0))));
+
+        RentalCatalog.Result result = catalog.filter(null, 10_300L, 50, null, RentalCatalog.Sort.PRICE_ASC, 3);
+
+        assertThat(catalog.size()).isEqualTo(2999);
+        assertThat(result.ids()).containsExactly(100L, 50L, 1050L);
+    }
+
+    private static Rental rental(long id, String price, long surface, LocalDateTime createdAt) {
+        Rental rental = new Rental("Rental " + id, BigDecimal.valueOf(surface), new BigDecimal(price), null, null);
+        rental.setId(id);
+        rental.setCreatedAt(createdAt);
+        rental.setUpdatedAt(createdAt.plusDays(id % 7));
+        return rental;
+    }
+}
@@ -0,0 +1,64 @@
+package com.rental.app.catalog;
+
+import com.rental.app.entities.Rental;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RentalSearchIndexTests {
+
+    private RentalSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RentalSearchIndex(new SimpleMeterRegistry());
+        index.upsert(List.of(
+                rental(1, "Sea view studio", "Small studio in the old town"),
+                rental(2, "Family house", "Large house with a sea view and a garden"),
+                rental(3, "Studio près de la mer", "Studio lumineux, vue dégagée"),
+                rental(4, "Loft", "Industrial loft downtown")));
+    }
+
+    @Test
+    void ranksNameMatchesFirst() {
+        RentalSearchIndex.Result result = index.search("sea view studio", 0, 10);
+
+        assertThat(result.total()).isEqualTo(3);
+        assertThat(result.ids()).startsWith(1L, 2L);
+    }
+
+    @Test
+    void matchesPrefixesAndIgnoresAccents() {
+        assertThat(index.search("indus", 0, 10).ids()).containsExactly(4L);
+        assertThat(index.search("PRES degagee", 0, 10).ids()).containsExactly(3L);
+    }
+
+    @Test
+    void paginatesResults() {
+        assertThat(index.search("studio", 0, 1).ids()).hasSize(1);
+        assertThat(index.search("studio", 1, 1).ids()).hasSize(1);
+        assertThat(index.search("studio", 2, 1).ids()).isEmpty();
+    }
+
+    @Test
+    void appliesUpdatesAndRemovals() {
+        index.upsert(List.of(rental(4, "Sea side loft", "Industrial loft on the beach")));
+        index.remove(List.of(1L));
+
+        assertThat(index.search("sea", 0, 10).ids()).containsExactlyInAnyOrder(2L, 4L);
+        assertThat(index.search("downtown", 0, 10).total()).isZero();
+        assertThat(index.documentCount()).isEqualTo(3);
+    }
+
+    private static Rental rental(long id, String name, String description) {
+        Rental rental = new Rental(name, null, null, null, description);
+        rental.setId(id);
+        rental.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id));
+        return rental;
+    }
+}
@@ -0,0 +1,69 @@
+package com.rental.app.catalog;
+
+import com.rental.app.dtos.RentalStatsRecord;
+import com.rental.app.entities.Rental;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RentalStatisticsTests {
+
+    private RentalStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new RentalStatistics(new double[]{500, 1000, 5000}, new double[]{10, 20});
+        List<Rental> rentals = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            rentals.add(rental(id, id, 50, LocalDateTime.of(2024, 1, 1, 0, 0)));
+        }
+        statistics.upsert(rentals);
+    }
+
+    @Test
+    void summarizesPrices() {
+        RentalStatsRecord.DistributionRecord price = statistics.snapshot().price();
+
+        assertThat(price.count()).isEqualTo(10_000);
+        assertThat(price.mean()).isEqualTo(5000.5);
+        assertThat(price.min()).isCloseTo(1, within(0.01));
+        assertThat(price.max()).isCloseTo(10_000, within(100.0));
+        assertThat(price.percentiles().get("p50")).isCloseTo(5000, within(50.0));
+        assertThat(price.percentiles().get("p99")).isCloseTo(9900, within(99.0));
+        assertThat(price.histogram()).extracting(RentalStatsRecord.BucketRecord::count)
+                .containsExactly(499L, 500L, 4000L, 5001L);
+    }
+
+    @Test
+    void subtractsUpdatedAndRemovedRentals() {
+        List<Long> removed = new ArrayList<>();
+        for (long id = 5001; id <= 10_000; id++) {
+            removed.add(id);
+        }
+        statistics.remove(removed);
+        statistics.upsert(List.of(rental(1, 20_000, 100, LocalDateTime.of(2024, 2, 1, 0, 0))));
+
+        RentalStatsRecord stats = statistics.snapshot();
+
+        assertThat(stats.count()).isEqualTo(5000);
+        assertThat(stats.price().max()).isCloseTo(20_000, within(200.0));
+        assertThat(stats.price().histogram()).extracting(RentalStatsRecord.BucketRecord::count)
+                .containsExactly(498L, 500L, 4000L, 2L);
+        assertThat(stats.pricePerSquareMeter().histogram()).extracting(RentalStatsRecord.BucketRecord::count)
+                .containsExactly(498L, 500L, 4002L);
+    }
+
+    private static Rental rental(long id, long price, long surface, LocalDateTime updatedAt) {
+        Rental rental = new Rental("Rental " + id, BigDecimal.valueOf(surface), BigDecimal.valueOf(price), null, null);
+        rental.setId(id);
+        rental.setUpdatedAt(updatedAt);
+        return rental;
+    }
+}
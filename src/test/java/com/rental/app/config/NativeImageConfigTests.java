@@ -0,0 +1,33 @@
+package com.rental.app.config;
+
+import com.rental.app.dtos.RentalsRecord;
+import com.rental.app.entities.Rental;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeImageConfigTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeImageConfigTests() {
+        new NativeImageConfig.ApplicationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersKeyPairAndCacheConfiguration() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("app.key")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("app.pub")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("ehcache.xml")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(org.ehcache.xml.model.ConfigType.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(org.ehcache.jsr107.EhcacheCachingProvider.class)).accepts(hints);
+    }
+
+    @Test
+    void registersTypesSerializedByJackson() throws NoSuchMethodException {
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(RentalsRecord.class.getMethod("rentals"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(Rental.class.getMethod("getOwnerId"))).accepts(hints);
+    }
+}
@@ -0,0 +1,90 @@
+package com.rental.app.images;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageCacheTests {
+
+    private static final int PICTURE_SIZE = 10 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private final ImageCache cache =
+            new ImageCache(DataSize.ofKilobytes(40), DataSize.ofKilobytes(20), new SimpleMeterRegistry());
+
+    @Test
+    void servesCachedBytesOffHeap() throws IOException {
+        Path file = picture("hot.jpg", (byte) 7);
+
+        CachedImage first = cache.get(file);
+        CachedImage second = cache.get(file);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.content().isDirect()).isTrue();
+        assertThat(StreamUtils.copyToByteArray(second.getInputStream())).isEqualTo(Files.readAllBytes(file));
+        assertThat(cache.residentBytes()).isEqualTo(PICTURE_SIZE);
+        assertThat(cache.hitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void keepsPopularPicturesDuringACrawl() throws IOException {
+        Path[] hot = new Path[4];
+        for (int i = 0; i < hot.length; i++) {
+            hot[i] = picture("hot-" + i + ".jpg", (byte) i);
+            for (int request = 0; request < 3; request++) {
+                cache.get(hot[i]);
+            }
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(cache.get(picture("crawl-" + i + ".jpg", (byte) i))).isNull();
+        }
+
+        for (Path file : hot) {
+            assertThat(cache.get(file)).isNotNull();
+        }
+        assertThat(cache.size()).isEqualTo(4);
+        assertThat(cache.residentBytes()).isEqualTo(4L * PICTURE_SIZE);
+    }
+
+    @Test
+    void replacesPicturesThatCooledDown() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            cache.get(picture("old-" + i + ".jpg", (byte) i));
+        }
+        Path rising = picture("rising.jpg", (byte) 9);
+
+        assertThat(cache.get(rising)).isNull();
+        assertThat(cache.get(rising)).isNotNull();
+        assertThat(cache.get(rising)).isNotNull();
+        assertThat(cache.size()).isEqualTo(4);
+        assertThat(cache.residentBytes()).isLessThanOrEqualTo(DataSize.ofKilobytes(40).toBytes());
+    }
+
+    @Test
+    void leavesLargeAndMissingPicturesOnDisk() throws IOException {
+        Path large = directory.resolve("large.jpg");
+        Files.write(large, new byte[PICTURE_SIZE * 3]);
+
+        assertThat(cache.get(large)).isNull();
+        assertThat(cache.get(directory.resolve("missing.jpg"))).isNull();
+        assertThat(cache.residentBytes()).isZero();
+    }
+
+    private Path picture(String name, byte value) throws IOException {
+        byte[] bytes = new byte[PICTURE_SIZE];
+        Arrays.fill(bytes, value);
+        return Files.write(directory.resolve(name), bytes);
+    }
+}
@@ -0,0 +1,63 @@
+package com.rental.app.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimiterTests {
+
+    private static final long FAST = 5_000_000;
+    private static final long SLOW = 50_000_000;
+
+    @Test
+    void rejectsRequestsBeyondTheLimit() {
+        GradientLimiter limiter = new GradientLimiter(2, 1, 10);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(FAST);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void growsWhileLatencyIsSteadyAndShrinksWhenItRises() {
+        GradientLimiter limiter = new GradientLimiter(10, 2, 100);
+        runAtLimit(limiter, FAST, 500);
+        int grown = limiter.getLimit();
+        assertThat(grown).isEqualTo(100);
+
+        runAtLimit(limiter, SLOW, 50);
+        assertThat(limiter.getLimit()).isLessThan(grown / 2);
+
+        runAtLimit(limiter, FAST, 500);
+        assertThat(limiter.getLimit()).isEqualTo(100);
+    }
+
+    @Test
+    void keepsTheLimitWhileMostOfItIsUnused() {
+        GradientLimiter limiter = new GradientLimiter(20, 2, 100);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(i < 50 ? FAST : SLOW);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    /**
+     * Fills the limit, then completes the requests with the given latency, the given number of times.
+     */
+    private static void runAtLimit(GradientLimiter limiter, long latencyNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(latencyNanos);
+            }
+        }
+    }
+}
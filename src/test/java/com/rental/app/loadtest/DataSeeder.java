@@ -0,0 +1,110 @@
+package com.rental.app.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the embedded database with a deterministic set of users, rentals and messages.
+ * Every seeded user is {@code user<n>@example.com} and shares the password {@code app.seed.password}.
+ */
+@Component
+@Profile("embedded")
+public class DataSeeder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSeeder.class);
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] ADJECTIVES = {"Bright", "Cosy", "Spacious", "Modern", "Quiet", "Charming"};
+    private static final String[] KINDS = {"studio", "apartment", "loft", "house", "villa", "cabin"};
+    private static final String[] FEATURES = {"sea view", "garden", "balcony", "parking", "close to the beach", "city centre"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${app.seed.users:20}")
+    private int users;
+
+    @Value("${app.seed.rentals:200}")
+    private int rentals;
+
+    @Value("${app.seed.messages:1000}")
+    private int messages;
+
+    @Value("${app.seed.password:password}")
+    private String password;
+
+    public DataSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        String passwordHash = passwordEncoder.encode(password);
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (int i = 1; i <= users; i++) {
+            userRows.add(new Object[]{"user" + i + "@example.com", "User " + i, passwordHash, now, now});
+        }
+        batchInsert("INSERT INTO USERS (email, name, password, created_at, updated_at) VALUES (?, ?, ?, ?, ?)", userRows);
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM USERS ORDER BY id", Long.class);
+
+        List<Object[]> rentalRows = new ArrayList<>(rentals);
+        for (int i = 1; i <= rentals; i++) {
+            String kind = KINDS[random.nextInt(KINDS.length)];
+            String feature = FEATURES[random.nextInt(FEATURES.length)];
+            rentalRows.add(new Object[]{
+                    ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + kind + " with " + feature,
+                    BigDecimal.valueOf(15 + random.nextInt(250)),
+                    BigDecimal.valueOf(30_000 + random.nextInt(500_000), 2),
+                    "http://localhost/api/rentals/image/seed-" + i + ".jpg",
+                    "A " + kind + " with " + feature + ", listing number " + i,
+                    userIds.get(random.nextInt(userIds.size())),
+                    now,
+                    now});
+        }
+        batchInsert("INSERT INTO RENTALS (name, surface, price, picture, description, owner_id, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rentalRows);
+        List<Long> rentalIds = jdbcTemplate.queryForList("SELECT id FROM RENTALS ORDER BY id", Long.class);
+
+        List<Object[]> messageRows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= messages && !rentalIds.isEmpty(); i++) {
+            messageRows.add(new Object[]{
+                    rentalIds.get(random.nextInt(rentalIds.size())),
+                    userIds.get(random.nextInt(userIds.size())),
+                    "Is this rental still available? (message " + i + ")",
+                    now,
+                    now});
+            if (messageRows.size() == BATCH_SIZE) {
+                batchInsert("INSERT INTO MESSAGES (rental_id, user_id, message, created_at, updated_at) VALUES (?, ?, ?, ?, ?)", messageRows);
+                messageRows.clear();
+            }
+        }
+        batchInsert("INSERT INTO MESSAGES (rental_id, user_id, message, created_at, updated_at) VALUES (?, ?, ?, ?, ?)", messageRows);
+
+        logger.info("Seeded {} users, {} rentals and {} messages in {} ms",
+                users, rentals, messages, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.rental.app.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latency and error samples for one endpoint.
+ * Each worker thread owns its own instance; instances are merged once the run is over.
+ */
+class EndpointStats {
+
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long latencyNanos, boolean error) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    void merge(EndpointStats other) {
+        if (count + other.count > latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count + other.count);
+        }
+        System.arraycopy(other.latenciesNanos, 0, latenciesNanos, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    /**
+     * Returns the latency at the given percentile in milliseconds. Sorts the samples in place.
+     */
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        Arrays.sort(latenciesNanos, 0, count);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return latenciesNanos[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+    }
+}
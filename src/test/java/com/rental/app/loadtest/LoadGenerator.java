@@ -0,0 +1,214 @@
+package com.rental.app.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load generator.
+ * A fixed number of workers each log in as a seeded user, then issue requests picked at random
+ * from a weighted endpoint mix until the run duration elapses. {@code NOT_FOUND} requests ids that
+ * do not exist, to measure the cost of error responses.
+ */
+class LoadGenerator {
+
+    enum Endpoint {
+        LOGIN, LIST, DETAIL, NOT_FOUND, UPLOAD, MESSAGE
+    }
+
+    record Settings(String baseUrl, int workers, Duration warmup, Duration duration, Map<Endpoint, Integer> mix,
+                    int users, int rentals, String password, int uploadBytes) {
+    }
+
+    private static final String BOUNDARY = "----loadtest-boundary";
+
+    private final Settings settings;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Endpoint[] weightedEndpoints;
+    private final byte[] picture;
+
+    LoadGenerator(Settings settings) {
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<Endpoint> weighted = new ArrayList<>();
+        settings.mix().forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+        });
+        this.weightedEndpoints = weighted.toArray(Endpoint[]::new);
+        this.picture = new byte[settings.uploadBytes()];
+        ThreadLocalRandom.current().nextBytes(picture);
+    }
+
+    /**
+     * Runs the warm-up phase followed by the measured phase.
+     *
+     * @return The merged statistics of the measured phase and its actual duration in nanoseconds.
+     */
+    Result run() throws Exception {
+        runPhase(settings.warmup());
+        long start = System.nanoTime();
+        long cpuStart = processCpuNanos();
+        Map<Endpoint, EndpointStats> stats = runPhase(settings.duration());
+        return new Result(stats, System.nanoTime() - start, processCpuNanos() - cpuStart);
+    }
+
+    /**
+     * Statistics of the measured phase. The CPU time covers the whole JVM, load generator included.
+     */
+    record Result(Map<Endpoint, EndpointStats> stats, long elapsedNanos, long processCpuNanos) {
+    }
+
+    private static long processCpuNanos() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getProcessCpuTime();
+        }
+        return 0;
+    }
+
+    private Map<Endpoint, EndpointStats> runPhase(Duration duration) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(settings.workers());
+        try {
+            long deadline = System.nanoTime() + duration.toNanos();
+            List<Future<Map<Endpoint, EndpointStats>>> futures = new ArrayList<>();
+            for (int worker = 0; worker < settings.workers(); worker++) {
+                int userIndex = worker % settings.users() + 1;
+                futures.add(executor.submit(() -> work(userIndex, deadline)));
+            }
+            Map<Endpoint, EndpointStats> merged = emptyStats();
+            for (Future<Map<Endpoint, EndpointStats>> future : futures) {
+                future.get().forEach((endpoint, stats) -> merged.get(endpoint).merge(stats));
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<Endpoint, EndpointStats> work(int userIndex, long deadline) throws Exception {
+        Map<Endpoint, EndpointStats> stats = emptyStats();
+        String email = "user" + userIndex + "@example.com";
+        String token = login(email);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Endpoint endpoint = weightedEndpoints[random.nextInt(weightedEndpoints.length)];
+            HttpRequest request = buildRequest(endpoint, email, token, random);
+            long start = System.nanoTime();
+            boolean error;
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                error = response.statusCode() >= 400;
+            } catch (IOException e) {
+                error = true;
+            }
+            stats.get(endpoint).record(System.nanoTime() - start, error);
+        }
+        return stats;
+    }
+
+    private HttpRequest buildRequest(Endpoint endpoint, String email, String token, ThreadLocalRandom random) {
+        return switch (endpoint) {
+            case LOGIN -> loginRequest(email);
+            case LIST -> authorized("/api/rentals", token).GET().build();
+            case DETAIL -> authorized("/api/rentals/" + (random.nextInt(settings.rentals()) + 1), token).GET().build();
+            case NOT_FOUND -> authorized("/api/rentals/" + (settings.rentals() + 1_000_000 + random.nextInt(1_000_000)), token)
+                    .GET().build();
+            case UPLOAD -> authorized("/api/rentals", token)
+                    .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(uploadBody(random)))
+                    .build();
+            case MESSAGE -> authorized("/api/messages", token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(messageBody(random)))
+                    .build();
+        };
+    }
+
+    private String login(String email) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(loginRequest(email), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + email + ": HTTP " + response.statusCode());
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.get("token").asText();
+    }
+
+    private HttpRequest loginRequest(String email) {
+        String body = objectMapper.createObjectNode()
+                .put("login", email)
+                .put("password", settings.password())
+                .toString();
+        return HttpRequest.newBuilder(URI.create(settings.baseUrl() + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(settings.baseUrl() + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private String messageBody(ThreadLocalRandom random) {
+        return objectMapper.createObjectNode()
+                .put("message", "Is this rental still available?")
+                .put("rental_id", random.nextInt(settings.rentals()) + 1)
+                .put("user_id", random.nextInt(settings.users()) + 1)
+                .toString();
+    }
+
+    private byte[] uploadBody(ThreadLocalRandom random) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(picture.length + 1024);
+        writeField(body, "name", "Load test rental");
+        writeField(body, "surface", String.valueOf(20 + random.nextInt(200)));
+        writeField(body, "price", String.valueOf(300 + random.nextInt(5000)));
+        writeField(body, "description", "Created by the load generator");
+        writeAscii(body, "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"picture\"; filename=\"picture.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n");
+        body.writeBytes(picture);
+        writeAscii(body, "\r\n--" + BOUNDARY + "--\r\n");
+        return body.toByteArray();
+    }
+
+    private static void writeField(ByteArrayOutputStream body, String name, String value) {
+        writeAscii(body, "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n");
+    }
+
+    private static void writeAscii(ByteArrayOutputStream body, String value) {
+        body.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<Endpoint, EndpointStats> emptyStats() {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,129 @@
+package com.rental.app.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rental.app.loadtest.LoadGenerator.Endpoint;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives a realistic traffic mix against the application running on the embedded profile
+ * and reports throughput, latency percentiles and error rate per endpoint.
+ * Run with {@code mvn -Pload-test test}; results are written to {@code target/load-test/report.json}.
+ */
+@Tag("load")
+@ActiveProfiles("embedded")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.seed.users=${loadtest.users:100}",
+        "app.seed.rentals=${loadtest.rentals:5000}",
+        "app.seed.messages=${loadtest.messages:20000}"
+})
+class LoadTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTests.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${app.seed.users}")
+    private int users;
+
+    @Value("${app.seed.rentals}")
+    private int rentals;
+
+    @Value("${app.seed.password}")
+    private String password;
+
+    @Value("${loadtest.workers:16}")
+    private int workers;
+
+    @Value("${loadtest.warmup:PT10S}")
+    private Duration warmup;
+
+    @Value("${loadtest.duration:PT30S}")
+    private Duration duration;
+
+    @Value("${loadtest.mix:LOGIN:5,LIST:40,DETAIL:35,UPLOAD:5,MESSAGE:15}")
+    private String mix;
+
+    @Value("${loadtest.upload-bytes:65536}")
+    private int uploadBytes;
+
+    @Value("${loadtest.report:target/load-test/report.json}")
+    private Path reportPath;
+
+    @Test
+    void runLoad() throws Exception {
+        LoadGenerator.Settings settings = new LoadGenerator.Settings(
+                "http://localhost:" + port, workers, warmup, duration, parseMix(mix),
+                users, rentals, password, uploadBytes);
+        LoadGenerator.Result result = new LoadGenerator(settings).run();
+
+        ObjectNode report = writeReport(settings, result);
+        logger.info("Load test report:\n{}", report.toPrettyString());
+        assertThat(report.get("total_requests").asLong()).isPositive();
+    }
+
+    private ObjectNode writeReport(LoadGenerator.Settings settings, LoadGenerator.Result result) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        double seconds = result.elapsedNanos() / 1e9;
+        long total = 0;
+
+        ObjectNode report = objectMapper.createObjectNode();
+        report.put("workers", settings.workers());
+        report.put("duration_seconds", seconds);
+        ArrayNode endpoints = report.putArray("endpoints");
+        for (Map.Entry<Endpoint, EndpointStats> entry : result.stats().entrySet()) {
+            EndpointStats stats = entry.getValue();
+            if (stats.count() == 0) {
+                continue;
+            }
+            total += stats.count();
+            endpoints.addObject()
+                    .put("endpoint", entry.getKey().name().toLowerCase())
+                    .put("requests", stats.count())
+                    .put("throughput_rps", stats.count() / seconds)
+                    .put("error_rate", (double) stats.errors() / stats.count())
+                    .put("p50_ms", stats.percentileMillis(50))
+                    .put("p95_ms", stats.percentileMillis(95))
+                    .put("p99_ms", stats.percentileMillis(99))
+                    .put("max_ms", stats.percentileMillis(100));
+        }
+        EndpointStats uploads = result.stats().get(Endpoint.UPLOAD);
+        if (uploads.count() > 0) {
+            report.put("upload_mb_per_second", (double) uploads.count() * settings.uploadBytes() / 1e6 / seconds);
+        }
+        report.put("total_requests", total);
+        report.put("total_throughput_rps", total / seconds);
+        report.put("process_cpu_ms_per_request", total == 0 ? 0 : result.processCpuNanos() / 1e6 / total);
+
+        Files.createDirectories(reportPath.toAbsolutePath().getParent());
+        objectMapper.writeValue(reportPath.toFile(), report);
+        return report;
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(Endpoint.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,276 @@
+package com.rental.app.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Compares the servlet application with the reactive read application on the read endpoints at high concurrency.
+ * Run by {@code mvn -Preactive verify}. The servlet application seeds an H2 database file on the embedded profile,
+ * issues the tokens and is measured first; the reactive application then serves the same file over R2DBC with the
+ * same tokens. At each level of {@code benchmark.concurrency}, that many clients send requests back to back for
+ * {@code benchmark.duration} after a warm-up of the same length. The servlet concurrency limits are turned off so both
+ * stacks are measured as they queue. The report is written to {@code target/read-stack/report.json}.
+ */
+public final class ReadStackBenchmark {
+
+    private enum Endpoint {
+        LIST, DETAIL, USER, ME, IMAGE
+    }
+
+    private static final Path DIRECTORY = Path.of("target", "read-stack").toAbsolutePath();
+    private static final Duration TIMEOUT = Duration.ofSeconds(180);
+    private static final int USERS = 20;
+    private static final int RENTALS = 200;
+    private static final String IMAGE = "benchmark.jpg";
+    private static final Map<Endpoint, Integer> MIX = Map.of(
+            Endpoint.LIST, 20, Endpoint.DETAIL, 40, Endpoint.USER, 15, Endpoint.ME, 15, Endpoint.IMAGE, 10);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final Duration duration = Duration.parse(System.getProperty("benchmark.duration", "PT20S"));
+    private final List<Integer> concurrencyLevels = new ArrayList<>();
+    private final Endpoint[] weightedEndpoints;
+    private final List<String> tokens = new ArrayList<>();
+
+    private ReadStackBenchmark() {
+        for (String level : System.getProperty("benchmark.concurrency", "64,256").split(",")) {
+            concurrencyLevels.add(Integer.parseInt(level.trim()));
+        }
+        List<Endpoint> weighted = new ArrayList<>();
+        MIX.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+        });
+        this.weightedEndpoints = weighted.toArray(Endpoint[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        ReadStackBenchmark benchmark = new ReadStackBenchmark();
+        benchmark.prepare();
+        String classpath = System.getProperty("java.class.path");
+        String database = DIRECTORY.resolve("db") + ";MODE=MySQL";
+        String uploads = "--app.upload.dir=" + DIRECTORY.resolve("uploads");
+
+        ObjectNode report = benchmark.objectMapper.createObjectNode();
+        report.put("duration_seconds", benchmark.duration.toSeconds());
+        ArrayNode results = report.putArray("results");
+        results.addAll(benchmark.measure("servlet", true, List.of("java", "-cp", classpath,
+                "com.rental.app.AppApplication",
+                "--spring.profiles.active=embedded",
+                "--spring.datasource.url=jdbc:h2:file:" + database,
+                "--app.seed.users=" + USERS,
+                "--app.seed.rentals=" + RENTALS,
+                "--app.concurrency.enabled=false",
+                uploads)));
+        results.addAll(benchmark.measure("reactive", false, List.of("java", "-cp", classpath,
+                "com.rental.app.reactive.ReactiveReadApplication",
+                "--spring.r2dbc.url=r2dbc:h2:file:///" + database,
+                "--spring.r2dbc.username=sa",
+                "--spring.r2dbc.password=",
+                "--jwt.private.key=classpath:embedded/app.key",
+                "--jwt.public.key=classpath:embedded/app.pub",
+                uploads)));
+        benchmark.objectMapper.writeValue(DIRECTORY.resolve("report.json").toFile(), report);
+        System.out.println(report.toPrettyString());
+    }
+
+    private void prepare() throws IOException {
+        if (Files.exists(DIRECTORY)) {
+            try (Stream<Path> files = Files.walk(DIRECTORY)) {
+                for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Files.createDirectories(DIRECTORY.resolve("uploads"));
+        byte[] image = new byte[64 * 1024];
+        ThreadLocalRandom.current().nextBytes(image);
+        Files.write(DIRECTORY.resolve("uploads").resolve(IMAGE), image);
+    }
+
+    private ArrayNode measure(String stack, boolean login, List<String> command) throws Exception {
+        int port = freePort();
+        String baseUrl = "http://localhost:" + port;
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        Process process = new ProcessBuilder(arguments)
+                .redirectErrorStream(true)
+                .redirectOutput(DIRECTORY.resolve(stack + ".log").toFile())
+                .start();
+        try {
+            awaitReady(process, baseUrl);
+            if (login) {
+                for (int user = 1; user <= USERS; user++) {
+                    tokens.add(login(baseUrl, "user" + user + "@example.com"));
+                }
+            }
+            ArrayNode results = objectMapper.createArrayNode();
+            for (int concurrency : concurrencyLevels) {
+                run(baseUrl, concurrency);
+                long start = System.nanoTime();
+                Map<Endpoint, EndpointStats> stats = run(baseUrl, concurrency);
+                results.add(result(stack, concurrency, stats, (System.nanoTime() - start) / 1e9, residentMegabytes(process)));
+            }
+            return results;
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private Map<Endpoint, EndpointStats> run(String baseUrl, int concurrency) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            long deadline = System.nanoTime() + duration.toNanos();
+            List<Future<Map<Endpoint, EndpointStats>>> futures = new ArrayList<>();
+            for (int client = 0; client < concurrency; client++) {
+                String token = tokens.get(client % tokens.size());
+                futures.add(executor.submit(() -> work(baseUrl, token, deadline)));
+            }
+            Map<Endpoint, EndpointStats> merged = emptyStats();
+            for (Future<Map<Endpoint, EndpointStats>> future : futures) {
+                future.get().forEach((endpoint, stats) -> merged.get(endpoint).merge(stats));
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<Endpoint, EndpointStats> work(String baseUrl, String token, long deadline) throws InterruptedException {
+        Map<Endpoint, EndpointStats> stats = emptyStats();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Endpoint endpoint = weightedEndpoints[random.nextInt(weightedEndpoints.length)];
+            String path = switch (endpoint) {
+                case LIST -> "/api/rentals";
+                case DETAIL -> "/api/rentals/" + (random.nextInt(RENTALS) + 1);
+                case USER -> "/api/user/" + (random.nextInt(USERS) + 1);
+                case ME -> "/api/auth/me";
+                case IMAGE -> "/api/rentals/image/" + IMAGE;
+            };
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + token)
+                    .build();
+            long start = System.nanoTime();
+            boolean error;
+            try {
+                error = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+            } catch (IOException e) {
+                error = true;
+            }
+            stats.get(endpoint).record(System.nanoTime() - start, error);
+        }
+        return stats;
+    }
+
+    private ObjectNode result(String stack, int concurrency, Map<Endpoint, EndpointStats> stats, double seconds, long rss) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("stack", stack);
+        result.put("concurrency", concurrency);
+        EndpointStats all = new EndpointStats();
+        ArrayNode endpoints = result.putArray("endpoints");
+        stats.forEach((endpoint, endpointStats) -> {
+            all.merge(endpointStats);
+            endpoints.addObject()
+                    .put("endpoint", endpoint.name().toLowerCase())
+                    .put("requests", endpointStats.count())
+                    .put("errors", endpointStats.errors())
+                    .put("p50_ms", endpointStats.percentileMillis(50))
+                    .put("p99_ms", endpointStats.percentileMillis(99));
+        });
+        result.put("throughput_rps", all.count() / seconds);
+        result.put("error_rate", all.count() == 0 ? 0 : (double) all.errors() / all.count());
+        result.put("p50_ms", all.percentileMillis(50));
+        result.put("p99_ms", all.percentileMillis(99));
+        result.put("rss_mb", rss);
+        return result;
+    }
+
+    private String login(String baseUrl, String email) throws IOException, InterruptedException {
+        String body = objectMapper.createObjectNode().put("email", email).put("password", "password").toString();
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login of " + email + " failed with HTTP " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private void awaitReady(Process process, String baseUrl) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness")).build();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet.
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("Not ready within " + TIMEOUT);
+    }
+
+    /**
+     * Returns the resident set size of a process in megabytes, or -1 where {@code /proc} is not available.
+     */
+    private static long residentMegabytes(Process process) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        if (Files.notExists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+            }
+        }
+        return -1;
+    }
+
+    private static Map<Endpoint, EndpointStats> emptyStats() {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        return stats;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.rental.app.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rental.app.loadtest.LoadGenerator.Endpoint;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the first minute of traffic after a start with and without the warm-up stage.
+ * Run by {@code mvn -Pwarmup-report verify}. Each run starts the application on the embedded profile in its own JVM,
+ * records the time from launch until {@code /actuator/health/readiness} reports UP, then drives the load test mix
+ * with no warm-up of its own through consecutive windows ({@code warmup.windows}, 10 and 50 seconds by default).
+ * Cold and warm runs alternate; the report is written to {@code target/warmup/report.json}.
+ */
+public final class WarmupComparison {
+
+    private static final String MAIN_CLASS = "com.rental.app.AppApplication";
+    private static final Path DIRECTORY = Path.of("target", "warmup");
+    private static final Duration TIMEOUT = Duration.ofSeconds(180);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final Duration warmupDuration = Duration.parse(System.getProperty("warmup.duration", "PT15S"));
+    private final int workers = Integer.getInteger("warmup.workers", 8);
+    private final List<Duration> windows = new ArrayList<>();
+    private final Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+
+    private WarmupComparison() {
+        for (String window : System.getProperty("warmup.windows", "PT10S,PT50S").split(",")) {
+            windows.add(Duration.parse(window.trim()));
+        }
+        for (String entry : System.getProperty("warmup.mix", "LOGIN:5,LIST:40,DETAIL:35,MESSAGE:15").split(",")) {
+            String[] parts = entry.trim().split(":");
+            mix.put(Endpoint.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        WarmupComparison comparison = new WarmupComparison();
+        int runs = Integer.getInteger("warmup.runs", 1);
+        Files.createDirectories(DIRECTORY);
+
+        ObjectNode report = comparison.objectMapper.createObjectNode();
+        report.put("warmup_duration_seconds", comparison.warmupDuration.toSeconds());
+        report.put("workers", comparison.workers);
+        ArrayNode results = report.putArray("runs");
+        for (int run = 0; run < runs; run++) {
+            for (boolean warm : new boolean[]{false, true}) {
+                results.add(comparison.measure(warm, run));
+            }
+        }
+        comparison.objectMapper.writeValue(DIRECTORY.resolve("report.json").toFile(), report);
+        System.out.println(report.toPrettyString());
+    }
+
+    private ObjectNode measure(boolean warm, int run) throws Exception {
+        String mode = warm ? "warm" : "cold";
+        int port = freePort();
+        String baseUrl = "http://localhost:" + port;
+        List<String> command = List.of("java", "-cp", System.getProperty("java.class.path"), MAIN_CLASS,
+                "--spring.profiles.active=embedded",
+                "--server.port=" + port,
+                "--app.warmup.enabled=" + warm,
+                "--app.warmup.duration=" + warmupDuration);
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(DIRECTORY.resolve(mode + "-" + run + ".log").toFile())
+                .start();
+        try {
+            awaitReady(process, baseUrl);
+            ObjectNode result = objectMapper.createObjectNode();
+            result.put("mode", mode);
+            result.put("ready_ms", (System.nanoTime() - start) / 1_000_000);
+            ArrayNode windowResults = result.putArray("windows");
+            long offset = 0;
+            for (Duration window : windows) {
+                LoadGenerator.Result load = new LoadGenerator(new LoadGenerator.Settings(
+                        baseUrl, workers, Duration.ZERO, window, mix, 20, 200, "password", 0)).run();
+                windowResults.add(window(offset, offset + window.toSeconds(), load));
+                offset += window.toSeconds();
+            }
+            return result;
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private ObjectNode window(long from, long to, LoadGenerator.Result load) {
+        ObjectNode window = objectMapper.createObjectNode();
+        window.put("seconds", from + "-" + to);
+        EndpointStats all = new EndpointStats();
+        ArrayNode endpoints = window.putArray("endpoints");
+        for (Map.Entry<Endpoint, EndpointStats> entry : load.stats().entrySet()) {
+            EndpointStats stats = entry.getValue();
+            if (stats.count() == 0) {
+                continue;
+            }
+            all.merge(stats);
+            endpoints.addObject()
+                    .put("endpoint", entry.getKey().name().toLowerCase())
+                    .put("requests", stats.count())
+                    .put("errors", stats.errors())
+                    .put("p50_ms", stats.percentileMillis(50))
+                    .put("p99_ms", stats.percentileMillis(99))
+                    .put("max_ms", stats.percentileMillis(100));
+        }
+        window.put("requests", all.count());
+        window.put("p50_ms", all.percentileMillis(50));
+        window.put("p99_ms", all.percentileMillis(99));
+        return window;
+    }
+
+    private void awaitReady(Process process, String baseUrl) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness")).build();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet.
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("Not ready within " + TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
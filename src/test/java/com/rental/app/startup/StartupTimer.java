@@ -0,0 +1,292 @@
+package com.rental.app.startup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures how long the packaged application takes to answer its first requests, and how much memory it then uses,
+ * in each startup mode, then smoke-tests the main endpoints.
+ * Run by {@code mvn -Pfast-start verify} and {@code mvn -Pnative,native-smoke verify} on the jar extracted to {@code target/fast-start},
+ * given as argument. The modes come from {@code startup.modes}:
+ * <ul>
+ *     <li>{@code default}: the extracted jar on the JVM</li>
+ *     <li>{@code fast-start}: the same jar with the AOT context, lazy beans and a CDS archive, which is trained first</li>
+ *     <li>{@code native}: the executable given by {@code startup.native}</li>
+ * </ul>
+ * The modes run alternately on an in-memory H2 database, with the warm-up off so that it neither runs beside the first
+ * requests nor is counted in them. Each run records, from process launch, the first successful registration and
+ * rentals list and the resident set size after them. Runs are appended to
+ * {@code target/startup-times.csv} and the medians are printed.
+ */
+public final class StartupTimer {
+
+    private static final String MAIN_CLASS = "com.rental.app.AppApplication";
+    private static final Path TIMES_FILE = Path.of("target", "startup-times.csv");
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+    private static final String BOUNDARY = "----startup-boundary";
+
+    private final Path directory;
+    private final String classpath;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StartupTimer(Path jar) throws URISyntaxException {
+        this.directory = jar.toAbsolutePath().getParent();
+        // The H2 driver comes from the test classpath. A CDS archive only matches the classpath it was trained with,
+        // so the archive written here is for measurement; deployments train their own (see README).
+        Path h2 = Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        this.classpath = jar.toAbsolutePath() + File.pathSeparator + h2;
+    }
+
+    public static void main(String[] args) throws Exception {
+        StartupTimer timer = new StartupTimer(Path.of(args[0]));
+        int runs = Integer.getInteger("startup.runs", 3);
+        List<String> modes = List.of(System.getProperty("startup.modes", "default,fast-start").split(","));
+
+        if (modes.contains("fast-start")) {
+            timer.train();
+        }
+        Map<String, List<long[]>> results = new LinkedHashMap<>();
+        for (int run = 0; run < runs; run++) {
+            for (String mode : modes) {
+                long[] measurements = timer.measure(mode, run);
+                results.computeIfAbsent(mode, key -> new ArrayList<>()).add(measurements);
+                timer.append(mode, measurements);
+            }
+        }
+        System.out.println("Time to first request and resident memory (median of " + runs + " runs):");
+        results.forEach((mode, measurements) -> System.out.printf(
+                "  %-10s first registration %5d ms, first rentals list %5d ms, RSS %4d MB%n",
+                mode, median(measurements, 0), median(measurements, 1), median(measurements, 2)));
+    }
+
+    /**
+     * Starts the application in fast-start mode up to the context refresh and writes the classes it loaded to {@code app.jsa}.
+     */
+    private void train() throws IOException, InterruptedException {
+        Path archive = directory.resolve("app.jsa");
+        Files.deleteIfExists(archive);
+        List<String> command = command("fast-start", freePort(),
+                "-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh");
+        Process process = start(command, directory.resolve("training.log"));
+        if (process.waitFor() != 0 || Files.notExists(archive)) {
+            throw new IllegalStateException("CDS training run failed, see " + directory.resolve("training.log"));
+        }
+    }
+
+    private long[] measure(String mode, int run) throws IOException, InterruptedException {
+        int port = freePort();
+        String baseUrl = "http://localhost:" + port;
+        long start = System.nanoTime();
+        String[] jvmOptions = mode.equals("fast-start")
+                ? new String[]{"-XX:SharedArchiveFile=" + directory.resolve("app.jsa")}
+                : new String[0];
+        Process process = start(command(mode, port, jvmOptions), directory.resolve(mode + "-" + run + ".log"));
+        try {
+            String body = objectMapper.createObjectNode()
+                    .put("name", "Startup")
+                    .put("email", "startup@example.com")
+                    .put("password", "password")
+                    .toString();
+            HttpResponse<String> registration = firstResponse(process, HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/register"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build());
+            long registered = System.nanoTime() - start;
+            String token = objectMapper.readTree(registration.body()).get("token").asText();
+            firstResponse(process, authorized(baseUrl + "/api/rentals", token).build());
+            long listed = System.nanoTime() - start;
+            long rss = residentMegabytes(process);
+            smokeTest(baseUrl, token);
+            return new long[]{registered / 1_000_000, listed / 1_000_000, rss};
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private List<String> command(String mode, int port, String... jvmOptions) {
+        List<String> command = new ArrayList<>();
+        if (mode.equals("native")) {
+            command.add(System.getProperty("startup.native"));
+        } else {
+            command.add("java");
+            command.addAll(List.of(jvmOptions));
+            if (mode.equals("fast-start")) {
+                command.add("-Dspring.aot.enabled=true");
+            }
+            command.addAll(List.of("-cp", classpath, MAIN_CLASS));
+        }
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--jwt.private.key=file:src/test/resources/embedded/app.key",
+                "--jwt.public.key=file:src/test/resources/embedded/app.pub",
+                "--app.upload.dir=" + directory.resolve("uploads"),
+                "--app.warmup.enabled=false"));
+        if (mode.equals("fast-start")) {
+            command.add("--spring.profiles.active=fast-start");
+        }
+        return command;
+    }
+
+    /**
+     * Exercises the entities, DTOs and formats a native image needs hints for: the current user, a rental created from
+     * a multipart form and read back, a message, and the rentals list as CBOR.
+     */
+    private void smokeTest(String baseUrl, String token) throws IOException, InterruptedException {
+        JsonNode me = objectMapper.readTree(expectOk(authorized(baseUrl + "/api/auth/me", token).build()).body());
+        check(me.path("email").asText().equals("startup@example.com"), "/api/auth/me returned " + me);
+
+        expectOk(authorized(baseUrl + "/api/rentals", token)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(rentalForm()))
+                .build());
+        JsonNode mine = objectMapper.readTree(expectOk(authorized(baseUrl + "/api/rentals/mine", token).build()).body());
+        check(mine.path("rentals").size() == 1, "/api/rentals/mine returned " + mine);
+        long rentalId = mine.path("rentals").get(0).path("id").asLong();
+        JsonNode rental = objectMapper.readTree(expectOk(authorized(baseUrl + "/api/rentals/" + rentalId, token).build()).body());
+        check(rental.path("name").asText().equals("Smoke test rental"), "/api/rentals/" + rentalId + " returned " + rental);
+
+        String message = objectMapper.createObjectNode()
+                .put("message", "Is this rental still available?")
+                .put("rental_id", rentalId)
+                .put("user_id", me.path("id").asLong())
+                .toString();
+        expectOk(authorized(baseUrl + "/api/messages", token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(message))
+                .build());
+
+        HttpResponse<String> cbor = expectOk(authorized(baseUrl + "/api/rentals", token).header("Accept", "application/cbor").build());
+        check(cbor.headers().firstValue("Content-Type").orElse("").startsWith("application/cbor"),
+                "/api/rentals as CBOR returned " + cbor.headers().map());
+    }
+
+    private byte[] rentalForm() {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writeField(body, "name", "Smoke test rental");
+        writeField(body, "surface", "42");
+        writeField(body, "price", "900");
+        writeField(body, "description", "Created by the startup smoke test");
+        writeAscii(body, "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"picture\"; filename=\"picture.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n");
+        body.writeBytes(new byte[1024]);
+        writeAscii(body, "\r\n--" + BOUNDARY + "--\r\n");
+        return body.toByteArray();
+    }
+
+    private static void writeField(ByteArrayOutputStream body, String name, String value) {
+        writeAscii(body, "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n");
+    }
+
+    private static void writeAscii(ByteArrayOutputStream body, String value) {
+        body.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HttpResponse<String> expectOk(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        check(response.statusCode() == 200, request.method() + " " + request.uri() + " returned HTTP " + response.statusCode()
+                + ": " + response.body());
+        return response;
+    }
+
+    private static void check(boolean condition, String failure) {
+        if (!condition) {
+            throw new IllegalStateException("Smoke test failed: " + failure);
+        }
+    }
+
+    private static HttpRequest.Builder authorized(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<String> firstResponse(Process process, HttpRequest request) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    return response;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet.
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No successful response to " + request.uri() + " within " + TIMEOUT);
+    }
+
+    /**
+     * Returns the resident set size of a process in megabytes, or -1 where {@code /proc} is not available.
+     */
+    private static long residentMegabytes(Process process) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        if (Files.notExists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+            }
+        }
+        return -1;
+    }
+
+    private static Process start(List<String> command, Path log) throws IOException {
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private void append(String mode, long[] measurements) throws IOException {
+        Files.createDirectories(TIMES_FILE.getParent());
+        if (Files.notExists(TIMES_FILE)) {
+            Files.writeString(TIMES_FILE, "mode,first_registration_ms,first_list_ms,rss_mb" + System.lineSeparator(),
+                    StandardCharsets.UTF_8);
+        }
+        Files.writeString(TIMES_FILE, mode + "," + measurements[0] + "," + measurements[1] + "," + measurements[2]
+                + System.lineSeparator(), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private static long median(List<long[]> measurements, int column) {
+        return measurements.stream().mapToLong(values -> values[column]).sorted().skip(measurements.size() / 2)
+                .findFirst().orElse(0);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}